@@ -1,16 +1,33 @@
 package com.app.admin.controller;
 
+import com.app.dto.BillingView;
 import com.app.entity.Billing;
+import com.app.service.BillingExportService;
 import com.app.service.BillingService;
-import com.app.service.InvoicePdfService;
+import com.app.service.InvoiceBatchService;
+import com.app.service.InvoicePdfCache;
+import com.app.service.OverdueBillingSweeper;
+import com.app.util.ETags;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
-import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/admin/billing")
@@ -20,36 +37,97 @@ public class AdminBillingApiController {
     private BillingService billingService;
 
     @Autowired
-    private InvoicePdfService invoicePdfService;
+    private InvoiceBatchService invoiceBatchService;
+
+    @Autowired
+    private InvoicePdfCache invoicePdfCache;
+
+    @Autowired
+    private OverdueBillingSweeper overdueBillingSweeper;
+
+    @Autowired
+    private BillingExportService billingExportService;
+
+    private static final List<String> ALL_STATUSES = List.of("PAID", "PENDING", "OVERDUE");
+    private static final int MAX_SUMMARY_CLIENTS = 100;
 
     @GetMapping
-    public ResponseEntity<List<Billing>> getAllBillings() {
-        return ResponseEntity.ok(billingService.getAllBillings());
+    public ResponseEntity<List<BillingView>> getAllBillings(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Project names are part of each view, so project changes invalidate the list too
+        String etag = ETags.forCollection("billing", billingService.getCollectionVersion(),
+                billingService.getProjectCollectionVersion());
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) return ETags.notModified(etag);
+        return ETags.ok(etag, billingService.getAllBillingViews());
+    }
+
+    /**
+     * Revenue totals by status, month and client. Dates filter on the invoice date; "to" is inclusive.
+     */
+    @GetMapping("/summary")
+    public ResponseEntity<Map<String, Object>> getBillingSummary(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(defaultValue = "10") int clients) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            int clientLimit = Math.max(1, Math.min(clients, MAX_SUMMARY_CLIENTS));
+            response.put("success", true);
+            response.put("from", from);
+            response.put("to", to);
+            response.putAll(billingService.getSummary(startOf(from), endOf(to), clientLimit));
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            e.printStackTrace();
+            response.put("success", false);
+            response.put("error", e.getMessage());
+            return ResponseEntity.internalServerError().body(response);
+        }
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Billing> getBillingById(@PathVariable Long id) {
-        return billingService.getBillingById(id)
-                .map(ResponseEntity::ok)
+    public ResponseEntity<BillingView> getBillingById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = billingTag(id);
+        if (etag == null) return ResponseEntity.notFound().build();
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) return ETags.notModified(etag);
+        return billingService.getBillingViewById(id)
+                .map(view -> ETags.ok(etag, view))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @PostMapping("/create")
-    public ResponseEntity<Billing> createBilling(@RequestBody Billing billing) {
+    public ResponseEntity<BillingView> createBilling(@RequestBody Billing billing) {
         try {
             Billing created = billingService.createBilling(billing);
-            return ResponseEntity.ok(created);
+            return ResponseEntity.of(billingService.getBillingViewById(created.getId()));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.badRequest().build();
         }
     }
 
+    /**
+     * Partial update. With If-Match, a stale ETag is rejected with 412 before anything is written.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<Billing> updateBilling(@PathVariable Long id, @RequestBody Billing billingUpdate) {
+    public ResponseEntity<BillingView> updateBilling(@PathVariable Long id, @RequestBody Billing billingUpdate,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
+            Long expectedVersion = null;
+            if (ifMatch != null) {
+                Optional<Long> version = billingService.getVersion(id);
+                if (version.isEmpty()) return ResponseEntity.notFound().build();
+                String etag = billingTag(id, version.get());
+                if (!ETags.ifMatchHolds(ifMatch, etag)) return ETags.preconditionFailed(etag);
+                expectedVersion = version.get();
+            }
+            Long expected = expectedVersion;
             return billingService.getBillingById(id)
                     .map(existingBilling -> {
+                        if (expected != null && !expected.equals(existingBilling.getVersion())) {
+                            throw new ObjectOptimisticLockingFailureException(Billing.class, id);
+                        }
                         if (billingUpdate.getAmount() != null) existingBilling.setAmount(billingUpdate.getAmount());
                         if (billingUpdate.getStatus() != null) existingBilling.setStatus(billingUpdate.getStatus());
                         if (billingUpdate.getInvoiceNumber() != null) existingBilling.setInvoiceNumber(billingUpdate.getInvoiceNumber());
@@ -58,9 +136,14 @@ public class AdminBillingApiController {
                         if (billingUpdate.getPaidDate() != null) existingBilling.setPaidDate(billingUpdate.getPaidDate());
                         if (billingUpdate.getNotes() != null) existingBilling.setNotes(billingUpdate.getNotes());
                         Billing updated = billingService.updateBilling(existingBilling);
-                        return ResponseEntity.ok(updated);
+                        return billingService.getBillingViewById(updated.getId())
+                                .map(view -> ETags.ok(billingTag(id), view))
+                                .orElse(ResponseEntity.notFound().build());
                     })
                     .orElse(ResponseEntity.notFound().build());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Saved by someone else between our read and write
+            return ETags.preconditionFailed(billingTag(id));
         } catch (Exception e) {
             e.printStackTrace();
             return ResponseEntity.badRequest().build();
@@ -74,24 +157,130 @@ public class AdminBillingApiController {
     }
 
     @GetMapping("/{id}/pdf")
-    public ResponseEntity<byte[]> downloadInvoicePdf(@PathVariable Long id) {
-        try {
-            Billing billing = billingService.getBillingById(id)
-                    .orElseThrow(() -> new RuntimeException("Billing not found"));
-
-            byte[] pdfBytes = invoicePdfService.generateInvoicePdf(billing);
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_PDF);
-            String filename = (billing.getInvoiceNumber() != null ? billing.getInvoiceNumber() : "invoice-" + id) + ".pdf";
-            headers.setContentDispositionFormData("attachment", filename);
-            headers.setCacheControl("must-revalidate, post-check=0, pre-check=0");
+    public void downloadInvoicePdf(@PathVariable Long id, HttpServletResponse response) throws IOException {
+        Billing billing = billingService.getBillingById(id).orElse(null);
+        if (billing == null) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
 
-            return new ResponseEntity<>(pdfBytes, headers, HttpStatus.OK);
+        String filename = (billing.getInvoiceNumber() != null ? billing.getInvoiceNumber() : "invoice-" + id) + ".pdf";
+        response.setContentType(MediaType.APPLICATION_PDF_VALUE);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "form-data; name=\"attachment\"; filename=\"" + filename + "\"");
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "must-revalidate, post-check=0, pre-check=0");
+        try (FileChannel channel = invoicePdfCache.open(billing)) {
+            // Repeat downloads are a plain file copy; only the first request per version renders
+            response.setContentLengthLong(channel.size());
+            OutputStream out = response.getOutputStream();
+            WritableByteChannel target = Channels.newChannel(out);
+            long position = 0;
+            long remaining = channel.size();
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, target);
+                if (sent <= 0) break;
+                position += sent;
+                remaining -= sent;
+            }
+            out.flush();
         } catch (Exception e) {
             e.printStackTrace();
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+            if (!response.isCommitted()) {
+                response.reset();
+                response.sendError(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+            }
         }
     }
-}
 
+    /**
+     * Renders every matching invoice in parallel and streams them as one ZIP.
+     * Dates filter on the invoice date (created_at); "to" is inclusive.
+     */
+    @GetMapping("/invoices.zip")
+    public void downloadInvoiceBatch(
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        List<String> statuses = status == null || status.isEmpty()
+                ? ALL_STATUSES
+                : status.stream().map(String::toUpperCase).toList();
+        List<Billing> billings = invoiceBatchService.findInvoices(statuses, startOf(from), endOf(to));
+        if (billings.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND, "No invoices match the filter");
+            return;
+        }
+
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"invoices-" + LocalDate.now() + ".zip\"");
+        Map<String, Object> metrics = invoiceBatchService.writeInvoicesZip(billings, response.getOutputStream());
+        System.out.println("🧾 Invoice batch: " + metrics);
+    }
+
+    @GetMapping("/invoices/batch-stats")
+    public ResponseEntity<Map<String, Object>> getInvoiceBatchStats() {
+        Map<String, Object> response = new HashMap<>();
+        response.put("success", true);
+        response.put("lastBatch", invoiceBatchService.getLastBatchMetrics());
+        response.put("pdfCache", invoicePdfCache.stats());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Streams the billing ledger as CSV. Same filters as the invoice batch; all statuses by default.
+     */
+    @GetMapping("/export.csv")
+    public void exportLedger(
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            HttpServletResponse response) throws IOException {
+        List<String> statuses = status == null ? null : status.stream().map(String::toUpperCase).toList();
+
+        response.setContentType("text/csv;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"billing-ledger-" + LocalDate.now() + ".csv\"");
+        // No default range here: the full ledger must include rows without a created_at
+        long rows = billingExportService.writeCsv(statuses,
+                from != null ? startOf(from) : null, to != null ? endOf(to) : null, response.getOutputStream());
+        System.out.println("📤 Exported " + rows + " billing rows to CSV");
+    }
+
+    @GetMapping("/overdue-sweep")
+    public ResponseEntity<Map<String, Object>> getOverdueSweepStats() {
+        return ResponseEntity.ok(overdueBillingSweeper.stats());
+    }
+
+    @PostMapping("/overdue-sweep/run")
+    public ResponseEntity<Map<String, Object>> runOverdueSweep() {
+        Map<String, Object> response = new HashMap<>();
+        List<Long> overdueIds = overdueBillingSweeper.sweep();
+        response.put("success", overdueIds != null);
+        response.put("message", overdueIds != null
+                ? overdueIds.size() + " invoices marked overdue"
+                : "Overdue sweep already running");
+        response.put("ids", overdueIds);
+        response.put("stats", overdueBillingSweeper.stats());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * ETag of a billing view: the billing's version plus that of its project, or null if the billing is gone.
+     */
+    private String billingTag(Long id) {
+        return billingService.getVersion(id).map(version -> billingTag(id, version)).orElse(null);
+    }
+
+    private String billingTag(Long id, Long version) {
+        return ETags.forResource("billing", id, version, billingService.getProjectVersion(id).orElse(null));
+    }
+
+    private static LocalDateTime startOf(LocalDate from) {
+        return from != null ? from.atStartOfDay() : LocalDateTime.of(1970, 1, 1, 0, 0);
+    }
+
+    // Exclusive upper bound, so the whole "to" day is included
+    private static LocalDateTime endOf(LocalDate to) {
+        return to != null ? to.plusDays(1).atStartOfDay() : LocalDateTime.of(9999, 1, 1, 0, 0);
+    }
+}
@@ -1,26 +1,41 @@
 package com.app.admin.controller;
 
+import com.app.dto.FileStat;
+import com.app.dto.ImageVariants;
+import com.app.dto.ProjectSummary;
+import com.app.dto.StoredUpload;
+import com.app.entity.ImageDerivative;
 import com.app.entity.Project;
+import com.app.entity.ProjectFile;
+import com.app.service.FileStatCache;
+import com.app.service.ImageDerivativeService;
+import com.app.service.ProjectFileService;
 import com.app.service.ProjectService;
+import com.app.service.UploadStorageService;
+import com.app.util.ETags;
+import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Base64;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.List;
+import java.util.Set;
 
 @RestController
 @RequestMapping("/api/admin/projects")
@@ -29,26 +44,92 @@ public class AdminProjectApiController {
     @Autowired
     private ProjectService projectService;
 
+    @Autowired
+    private ProjectFileService projectFileService;
+
+    @Autowired
+    private UploadStorageService uploadStorageService;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Autowired
+    private FileStatCache fileStatCache;
+
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_MANIFEST_PROJECTS = 100;
+
     @Value("${app.upload.dir:uploads/projects}")
     private String uploadDir;
 
     @GetMapping
-    public ResponseEntity<List<Project>> getAllProjects() {
+    public ResponseEntity<List<Project>> getAllProjects(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        // Derivatives are generated after the upload, so they are part of the list's version too
+        String etag = ETags.forCollection("projects", projectService.getCollectionVersion(),
+                imageDerivativeService.getCollectionVersion());
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) return ETags.notModified(etag);
         List<Project> projects = projectService.getAllProjects();
-        System.out.println("📋 Returning " + projects.size() + " projects:");
+        attachImageVariants(projects);
+        System.out.println("📋 Returning " + projects.size() + " projects");
+        return ETags.ok(etag, projects);
+    }
 
-        for (Project project : projects) {
-            System.out.println("- Project " + project.getId() + " (" + project.getName() + "):");
-            System.out.println("  FilePaths: " + project.getFilePaths());
+    /**
+     * Cursor-paginated project list. Returns summaries only (no description or filePaths);
+     * use GET /{id} for the full project.
+     */
+    @GetMapping("/summaries")
+    public ResponseEntity<Map<String, Object>> getProjectSummaries(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        Map<String, Object> response = new HashMap<>();
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf('|');
+                afterCreatedAt = LocalDateTime.parse(decoded.substring(0, separator));
+                afterId = Long.parseLong(decoded.substring(separator + 1));
+            } catch (Exception e) {
+                response.put("success", false);
+                response.put("error", "Invalid cursor");
+                return ResponseEntity.badRequest().body(response);
+            }
         }
 
-        return ResponseEntity.ok(projects);
+        // Fetch one extra row to know whether another page exists
+        List<ProjectSummary> rows = projectService.getProjectSummaries(afterCreatedAt, afterId, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<ProjectSummary> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            ProjectSummary last = items.get(items.size() - 1);
+            String raw = last.getCreatedAt() + "|" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        response.put("success", true);
+        response.put("items", items);
+        response.put("hasMore", hasMore);
+        response.put("nextCursor", nextCursor);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Project> getProjectById(@PathVariable Long id) {
+    public ResponseEntity<Project> getProjectById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<Long> version = projectService.getVersion(id);
+        if (version.isEmpty()) return ResponseEntity.notFound().build();
+        String etag = ETags.forResource("project", id, version.get());
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) return ETags.notModified(etag);
         return projectService.getProjectById(id)
-                .map(ResponseEntity::ok)
+                .map(project -> ETags.ok(ETags.forResource("project", id, project.getVersion()), project))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -60,6 +141,10 @@ public class AdminProjectApiController {
         System.out.println("- FilePaths received: " + project.getFilePaths());
         System.out.println("- FilePaths length: " + (project.getFilePaths() != null ? project.getFilePaths().length() : "null"));
 
+        if (hasInvalidFilePath(project.getFilePaths())) {
+            return ResponseEntity.badRequest().build();
+        }
+
         Project created = projectService.createProject(project);
 
         System.out.println("✅ Project created with ID: " + created.getId());
@@ -68,101 +153,154 @@ public class AdminProjectApiController {
         return ResponseEntity.ok(created);
     }
 
+    /**
+     * Partial update. With If-Match, a stale ETag is rejected with 412 before anything is written.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<Project> updateProject(@PathVariable Long id, @RequestBody Project projectUpdate) {
-        return projectService.getProjectById(id)
-                .map(existingProject -> {
-                    if (projectUpdate.getName() != null) existingProject.setName(projectUpdate.getName());
-                    if (projectUpdate.getDescription() != null) existingProject.setDescription(projectUpdate.getDescription());
-                    if (projectUpdate.getStatus() != null) existingProject.setStatus(projectUpdate.getStatus());
-                    if (projectUpdate.getClientName() != null) existingProject.setClientName(projectUpdate.getClientName());
-                    if (projectUpdate.getImageUrl() != null) existingProject.setImageUrl(projectUpdate.getImageUrl());
-                    if (projectUpdate.getCategory() != null) existingProject.setCategory(projectUpdate.getCategory());
-                    if (projectUpdate.getBudget() != null) existingProject.setBudget(projectUpdate.getBudget());
-                    if (projectUpdate.getProgress() != null) existingProject.setProgress(projectUpdate.getProgress());
-                    if (projectUpdate.getFilePaths() != null) existingProject.setFilePaths(projectUpdate.getFilePaths());
-                    if (projectUpdate.getStartDate() != null) existingProject.setStartDate(projectUpdate.getStartDate());
-                    if (projectUpdate.getEndDate() != null) existingProject.setEndDate(projectUpdate.getEndDate());
-                    Project updated = projectService.updateProject(existingProject);
-                    return ResponseEntity.ok(updated);
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<Project> updateProject(@PathVariable Long id, @RequestBody Project projectUpdate,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            return projectService.getProjectById(id)
+                    .map(existingProject -> {
+                        String etag = ETags.forResource("project", id, existingProject.getVersion());
+                        if (!ETags.ifMatchHolds(ifMatch, etag)) return ETags.<Project>preconditionFailed(etag);
+                        if (hasInvalidFilePath(projectUpdate.getFilePaths())) return ResponseEntity.badRequest().<Project>build();
+                        if (projectUpdate.getName() != null) existingProject.setName(projectUpdate.getName());
+                        if (projectUpdate.getDescription() != null) existingProject.setDescription(projectUpdate.getDescription());
+                        if (projectUpdate.getStatus() != null) existingProject.setStatus(projectUpdate.getStatus());
+                        if (projectUpdate.getClientName() != null) existingProject.setClientName(projectUpdate.getClientName());
+                        if (projectUpdate.getImageUrl() != null) existingProject.setImageUrl(projectUpdate.getImageUrl());
+                        if (projectUpdate.getCategory() != null) existingProject.setCategory(projectUpdate.getCategory());
+                        if (projectUpdate.getBudget() != null) existingProject.setBudget(projectUpdate.getBudget());
+                        if (projectUpdate.getProgress() != null) existingProject.setProgress(projectUpdate.getProgress());
+                        if (projectUpdate.getFilePaths() != null) existingProject.setFilePaths(projectUpdate.getFilePaths());
+                        if (projectUpdate.getStartDate() != null) existingProject.setStartDate(projectUpdate.getStartDate());
+                        if (projectUpdate.getEndDate() != null) existingProject.setEndDate(projectUpdate.getEndDate());
+                        Project updated = projectService.updateProject(existingProject, projectUpdate.getFilePaths() != null);
+                        return ETags.ok(ETags.forResource("project", id, updated.getVersion()), updated);
+                    })
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Saved by someone else between our read and write
+            return ETags.preconditionFailed(projectService.getVersion(id)
+                    .map(version -> ETags.forResource("project", id, version))
+                    .orElse(null));
+        }
     }
 
-    @PostMapping("/upload-files")
-    public ResponseEntity<Map<String, Object>> uploadFiles(@RequestParam("files") MultipartFile[] files) {
-        try {
-            System.out.println("📤 File upload request received:");
-            System.out.println("- Number of files: " + files.length);
-            System.out.println("- Upload directory: " + uploadDir);
+    @GetMapping("/{id}/files")
+    public ResponseEntity<List<ProjectFile>> getProjectFiles(@PathVariable Long id) {
+        return ResponseEntity.ok(projectFileService.getFiles(id));
+    }
 
-            // Create upload directory if it doesn't exist
-            Path uploadPath = Paths.get(uploadDir);
-            System.out.println("- Resolved upload path: " + uploadPath.toAbsolutePath());
+    /**
+     * Existence, size, type and last-modified for every file of the given projects in one call,
+     * replacing per-file HEAD and verify-file requests. At most MAX_MANIFEST_PROJECTS projects per call.
+     */
+    @GetMapping("/files/manifest")
+    public ResponseEntity<Map<Long, List<Map<String, Object>>>> getFileManifest(@RequestParam List<Long> projectIds) {
+        if (projectIds.size() > MAX_MANIFEST_PROJECTS) {
+            return ResponseEntity.badRequest().build();
+        }
+        Map<Long, List<Map<String, Object>>> manifest = new LinkedHashMap<>();
+        for (Long projectId : projectIds) {
+            manifest.put(projectId, new ArrayList<>());
+        }
+        for (ProjectFile file : projectFileService.getFiles(projectIds)) {
+            FileStat stat = fileStatCache.stat(file.getPath());
+            Map<String, Object> entry = new HashMap<>();
+            entry.put("path", file.getPath());
+            entry.put("originalName", file.getOriginalName());
+            entry.put("exists", stat.isExists());
+            entry.put("size", stat.getSize());
+            entry.put("contentType", file.getContentType() != null ? file.getContentType() : stat.getContentType());
+            entry.put("lastModified", stat.getLastModified());
+            manifest.get(file.getProjectId()).add(entry);
+        }
+        return ResponseEntity.ok(manifest);
+    }
 
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-                System.out.println("✅ Created upload directory: " + uploadPath.toAbsolutePath());
-            }
+    /**
+     * Streams every file of the project as one ZIP straight to the response.
+     */
+    @GetMapping("/{id}/files.zip")
+    public void downloadProjectFilesZip(@PathVariable Long id, HttpServletResponse response) throws IOException {
+        Optional<Project> projectOpt = projectService.getProjectById(id);
+        if (projectOpt.isEmpty()) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
 
-            java.util.List<String> filePaths = new ArrayList<>();
+        List<ProjectFile> files = projectFileService.getFiles(id);
+        String baseName = projectOpt.get().getName() != null
+                ? projectOpt.get().getName().replaceAll("[^a-zA-Z0-9._-]", "_")
+                : "project-" + id;
 
-            for (MultipartFile file : files) {
-                if (!file.isEmpty()) {
-                    System.out.println("- Processing file: " + file.getOriginalFilename() + " (" + file.getSize() + " bytes)");
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + baseName + "-files.zip\"");
 
-                    // Preserve original filename while ensuring uniqueness
-                    String originalName = file.getOriginalFilename();
-                    String cleanOriginalName = originalName != null ? originalName.replaceAll("[^a-zA-Z0-9._-]", "_") : "file";
-                    String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        int written = projectFileService.writeZip(files, response.getOutputStream());
+        System.out.println("📦 Streamed " + written + " file(s) for project " + id + " as ZIP");
+    }
 
-                    // Extract name and extension
-                    String nameWithoutExt = cleanOriginalName;
-                    String extension = "";
-                    if (cleanOriginalName.contains(".")) {
-                        int lastDotIndex = cleanOriginalName.lastIndexOf(".");
-                        nameWithoutExt = cleanOriginalName.substring(0, lastDotIndex);
-                        extension = cleanOriginalName.substring(lastDotIndex);
-                    }
+    @GetMapping("/{id}/images")
+    public ResponseEntity<List<ImageDerivative>> getProjectImages(@PathVariable Long id) {
+        return ResponseEntity.ok(imageDerivativeService.getDerivatives(projectFileService.getFilePaths(id)));
+    }
 
-                    // Create filename: originalName_timestamp_uniqueId.ext
-                    String fileName = nameWithoutExt + "_" + timestamp + "_" + System.nanoTime() + extension;
+    @PostMapping("/upload-files")
+    public ResponseEntity<Map<String, Object>> uploadFiles(
+            @RequestParam("files") MultipartFile[] files,
+            @RequestParam(required = false) Long projectId) {
+        try {
+            System.out.println("📤 File upload request received:");
+            System.out.println("- Number of files: " + files.length);
+            System.out.println("- Upload directory: " + Paths.get(uploadDir).toAbsolutePath());
 
-                    System.out.println("  Generated filename: " + fileName);
+            if (projectId != null && projectService.getProjectById(projectId).isEmpty()) {
+                Map<String, Object> errorResponse = new HashMap<>();
+                errorResponse.put("success", false);
+                errorResponse.put("message", "Project not found");
+                return ResponseEntity.status(404).body(errorResponse);
+            }
 
-                    // Save file
-                    Path filePath = uploadPath.resolve(fileName);
-                    Files.copy(file.getInputStream(), filePath);
+            // Files are streamed to disk concurrently and stored under their SHA-256,
+            // so re-uploading identical bytes reuses the existing copy
+            List<StoredUpload> storedFiles = uploadStorageService.storeAll(files);
 
-                    System.out.println("  File saved to: " + filePath.toAbsolutePath());
+            // Thumbnails and placeholders are built in the background
+            imageDerivativeService.submitAll(storedFiles);
 
-                    // Store file metadata including original name
-                    String webPath = "/uploads/projects/" + fileName;
+            List<String> filePaths = new ArrayList<>();
+            List<Map<String, String>> fileInfos = new ArrayList<>();
+            int deduplicated = 0;
 
-                    // Create file metadata object
-                    Map<String, String> fileInfo = new HashMap<>();
-                    fileInfo.put("path", webPath);
-                    fileInfo.put("originalName", originalName);
-                    fileInfo.put("size", String.valueOf(file.getSize()));
-                    fileInfo.put("type", file.getContentType());
+            for (StoredUpload stored : storedFiles) {
+                Map<String, String> fileInfo = new HashMap<>();
+                fileInfo.put("path", stored.getPath());
+                fileInfo.put("originalName", stored.getOriginalName());
+                fileInfo.put("size", String.valueOf(stored.getSize()));
+                fileInfo.put("type", stored.getContentType());
+                fileInfo.put("checksum", stored.getChecksum());
 
-                    filePaths.add(webPath); // Keep backward compatibility
+                filePaths.add(stored.getPath()); // Keep backward compatibility
+                fileInfos.add(fileInfo);
+                if (stored.isDeduplicated()) deduplicated++;
+            }
 
-                    System.out.println("  Web path: " + webPath);
-                    System.out.println("  Original name preserved: " + originalName);
-                }
+            // Attach straight away when the project already exists, keeping filePaths in step
+            if (projectId != null) {
+                projectService.attachUploads(projectId, storedFiles);
             }
 
-            System.out.println("✅ File upload completed successfully!");
-            System.out.println("- Total files processed: " + filePaths.size());
-            System.out.println("- Generated file paths: " + filePaths);
+            System.out.println("✅ File upload completed: " + filePaths.size() + " file(s), " + deduplicated + " already stored");
 
             Map<String, Object> response = new HashMap<>();
             response.put("success", true);
             response.put("filePaths", filePaths);
+            response.put("files", fileInfos);
+            response.put("deduplicated", deduplicated);
             response.put("message", filePaths.size() + " file(s) uploaded successfully");
-
-            System.out.println("📤 Returning response: " + response);
             return ResponseEntity.ok(response);
 
         } catch (IOException e) {
@@ -178,19 +316,17 @@ public class AdminProjectApiController {
         Map<String, Object> response = new HashMap<>();
 
         try {
-            // Remove leading slash if present
+            FileStat stat = fileStatCache.stat(filePath);
+            boolean exists = stat.isExists();
             String cleanPath = filePath.startsWith("/") ? filePath.substring(1) : filePath;
-
-            // Check if file exists in filesystem
             Path fullPath = Paths.get(cleanPath);
-            boolean exists = Files.exists(fullPath);
 
             response.put("success", true);
             response.put("filePath", filePath);
             response.put("resolvedPath", fullPath.toAbsolutePath().toString());
             response.put("exists", exists);
-            response.put("readable", exists && Files.isReadable(fullPath));
-            response.put("size", exists ? Files.size(fullPath) : 0);
+            response.put("readable", exists);
+            response.put("size", stat.getSize());
 
             if (exists) {
                 System.out.println("✅ File verification successful: " + filePath);
@@ -228,75 +364,25 @@ public class AdminProjectApiController {
                 return ResponseEntity.status(404).body(response);
             }
 
-            Project project = projectOpt.get();
-            String currentFilePaths = project.getFilePaths();
-
-            if (currentFilePaths == null || currentFilePaths.isEmpty()) {
-                response.put("success", false);
-                response.put("error", "No files found in project");
-                return ResponseEntity.status(400).body(response);
-            }
-
-            // Parse current file paths
-            List<String> fileList;
-            try {
-                fileList = new ArrayList<>(Arrays.asList(
-                    new com.fasterxml.jackson.databind.ObjectMapper().readValue(currentFilePaths, String[].class)
-                ));
-            } catch (Exception e) {
-                System.err.println("❌ Failed to parse filePaths JSON: " + e.getMessage());
-                response.put("success", false);
-                response.put("error", "Invalid file paths format");
-                return ResponseEntity.status(400).body(response);
-            }
-
-            // Check if file exists in the list
-            if (!fileList.contains(filePath)) {
+            // Drops the project_files row and keeps filePaths and imageUrl in step, in one transaction
+            Project updatedProject = projectService.detachFile(projectOpt.get(), filePath);
+            if (updatedProject == null) {
                 response.put("success", false);
                 response.put("error", "File not found in project");
                 return ResponseEntity.status(404).body(response);
             }
+            List<String> fileList = projectFileService.parseFilePaths(updatedProject.getFilePaths());
 
-            // Remove file from filesystem
-            String cleanPath = filePath.startsWith("/") ? filePath.substring(1) : filePath;
-            Path fullPath = Paths.get(cleanPath);
-
-            boolean fileDeleted = false;
-            if (Files.exists(fullPath)) {
-                try {
-                    Files.delete(fullPath);
-                    fileDeleted = true;
-                    System.out.println("✅ File deleted from filesystem: " + fullPath.toAbsolutePath());
-                } catch (Exception e) {
-                    System.err.println("⚠️ Failed to delete file from filesystem: " + e.getMessage());
-                    // Continue with database update even if file deletion fails
-                }
-            } else {
-                System.out.println("⚠️ File not found on filesystem: " + fullPath.toAbsolutePath());
-                fileDeleted = true; // Consider it deleted if it doesn't exist
-            }
-
-            // Remove file from database list
-            fileList.remove(filePath);
-
-            // Update project in database
-            String updatedFilePaths = fileList.isEmpty() ? null :
-                new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(fileList);
-            project.setFilePaths(updatedFilePaths);
-
-            // Update imageUrl if the deleted file was the main image
-            if (filePath.equals(project.getImageUrl())) {
-                project.setImageUrl(fileList.isEmpty() ? null : fileList.get(0));
-            }
-
-            Project updatedProject = projectService.updateProject(project);
+            // Stored bytes may be shared; the upload GC removes them once nothing references them
+            boolean unreferenced = uploadStorageService.release(filePath);
 
             response.put("success", true);
             response.put("message", "File deleted successfully");
             response.put("deletedFile", filePath);
             response.put("remainingFiles", fileList);
             response.put("updatedProject", updatedProject);
-            response.put("fileSystemDeleted", fileDeleted);
+            response.put("fileSystemDeleted", false);
+            response.put("scheduledForCleanup", unreferenced);
 
             System.out.println("✅ File deletion completed successfully");
             System.out.println("- Remaining files: " + fileList.size());
@@ -311,6 +397,32 @@ public class AdminProjectApiController {
         }
     }
 
+    // One lookup for every image file in the list, so the grid can show thumbnails instead of originals
+    private void attachImageVariants(List<Project> projects) {
+        Set<String> paths = new HashSet<>();
+        for (Project project : projects) {
+            paths.addAll(projectFileService.parseFilePaths(project.getFilePaths()));
+        }
+        Map<String, ImageVariants> variants = imageDerivativeService.getVariants(paths);
+        for (Project project : projects) {
+            Map<String, ImageVariants> images = new HashMap<>();
+            for (String path : projectFileService.parseFilePaths(project.getFilePaths())) {
+                ImageVariants image = variants.get(path);
+                if (image != null) images.put(path, image);
+            }
+            project.setImages(images);
+        }
+    }
+
+    // filePaths come from the client; anything outside the upload directory must never be read or zipped
+    private boolean hasInvalidFilePath(String filePathsJson) {
+        String invalid = projectFileService.findInvalidPath(projectFileService.parseFilePaths(filePathsJson));
+        if (invalid != null) {
+            System.err.println("⚠️ Rejected file path outside the upload directory: " + invalid);
+        }
+        return invalid != null;
+    }
+
     @DeleteMapping("/delete/{id}")
     public ResponseEntity<Void> deleteProject(@PathVariable Long id) {
         projectService.deleteProject(id);
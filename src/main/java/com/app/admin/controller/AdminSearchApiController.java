@@ -0,0 +1,36 @@
+package com.app.admin.controller;
+
+import com.app.dto.SearchHit;
+import com.app.service.SearchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/search")
+public class AdminSearchApiController {
+
+    private static final int MAX_LIMIT = 100;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @GetMapping
+    public ResponseEntity<Map<String, Object>> search(
+            @RequestParam("q") String query,
+            @RequestParam(defaultValue = "20") int limit) {
+        long start = System.nanoTime();
+        List<SearchHit> hits = searchIndexService.search(query, Math.max(1, Math.min(limit, MAX_LIMIT)));
+
+        Map<String, Object> response = new HashMap<>();
+        response.put("query", query);
+        response.put("results", hits);
+        response.put("count", hits.size());
+        response.put("tookMicros", (System.nanoTime() - start) / 1000);
+        return ResponseEntity.ok(response);
+    }
+}
@@ -0,0 +1,103 @@
+package com.app.admin.controller;
+
+import com.app.service.ContactFormBatchWriter;
+import com.app.service.OrphanFileCollector;
+import com.app.service.SystemArchiveService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/system")
+public class AdminSystemApiController {
+
+    @Autowired
+    private SystemArchiveService systemArchiveService;
+
+    @Autowired
+    private OrphanFileCollector orphanFileCollector;
+
+    @Autowired
+    private ContactFormBatchWriter contactFormBatchWriter;
+
+    /**
+     * Streams every table as NDJSON plus the uploads directory into one ZIP.
+     * Written straight to the response so nothing is buffered in memory.
+     */
+    @GetMapping("/export")
+    public void exportArchive(HttpServletResponse response) throws IOException {
+        String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+        response.setContentType("application/zip");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"jts-export-" + timestamp + ".zip\"");
+
+        System.out.println("📦 Starting system export...");
+        Map<String, Long> counts = systemArchiveService.export(response.getOutputStream());
+        System.out.println("✅ System export completed: " + counts);
+    }
+
+    /**
+     * Restores an archive produced by /export. The ZIP is read from the raw request body
+     * (Content-Type: application/zip) so it is not subject to multipart size limits.
+     */
+    @PostMapping("/import")
+    public ResponseEntity<Map<String, Object>> importArchive(HttpServletRequest request) {
+        Map<String, Object> response = new HashMap<>();
+        try {
+            System.out.println("📥 Starting system import...");
+            Map<String, Long> counts = systemArchiveService.importArchive(request.getInputStream());
+
+            long failedFiles = counts.getOrDefault("uploadsFailed", 0L);
+            if (failedFiles > 0) {
+                // The rows have committed by now, so this is a partial restore, not a rollback
+                System.err.println("⚠️ System import restored all rows but " + failedFiles + " upload file(s) failed: " + counts);
+                response.put("success", false);
+                response.put("imported", counts);
+                response.put("error", "All rows were restored, but " + failedFiles
+                        + " upload file(s) could not be written. See the server log for the affected paths.");
+                return ResponseEntity.status(500).body(response);
+            }
+            System.out.println("✅ System import completed: " + counts);
+
+            response.put("success", true);
+            response.put("imported", counts);
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            System.err.println("❌ System import failed: " + e.getMessage());
+            response.put("success", false);
+            response.put("error", "Import failed, nothing was restored: " + e.getMessage());
+            return ResponseEntity.status(500).body(response);
+        }
+    }
+
+    @GetMapping("/upload-gc")
+    public ResponseEntity<Map<String, Object>> getUploadGcStats() {
+        return ResponseEntity.ok(orphanFileCollector.stats());
+    }
+
+    @PostMapping("/upload-gc/run")
+    public ResponseEntity<Map<String, Object>> runUploadGc() {
+        Map<String, Object> response = new HashMap<>();
+        boolean started = orphanFileCollector.collect();
+        response.put("success", started);
+        response.put("message", started ? "Upload cleanup completed" : "Upload cleanup already running");
+        response.put("stats", orphanFileCollector.stats());
+        return ResponseEntity.ok(response);
+    }
+
+    /**
+     * Write-behind queue for public contact submissions: depth, batch sizes, flush latency and fallbacks.
+     */
+    @GetMapping("/contact-ingest")
+    public ResponseEntity<Map<String, Object>> getContactIngestStats() {
+        return ResponseEntity.ok(contactFormBatchWriter.stats());
+    }
+}
@@ -2,12 +2,16 @@ package com.app.admin.controller;
 
 import com.app.entity.User;
 import com.app.service.UserService;
+import com.app.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 
 @RestController
 @RequestMapping("/api/admin/users")
@@ -17,14 +21,22 @@ public class AdminUserApiController {
     private UserService userService;
 
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(userService.getAllUsers());
+    public ResponseEntity<List<User>> getAllUsers(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = ETags.forCollection("users", userService.getCollectionVersion());
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) return ETags.notModified(etag);
+        return ETags.ok(etag, userService.getAllUsers());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<User> getUserById(@PathVariable Long id) {
+    public ResponseEntity<User> getUserById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<Long> version = userService.getVersion(id);
+        if (version.isEmpty()) return ResponseEntity.notFound().build();
+        String etag = ETags.forResource("user", id, version.get());
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) return ETags.notModified(etag);
         return userService.getUserById(id)
-                .map(ResponseEntity::ok)
+                .map(user -> ETags.ok(ETags.forResource("user", id, user.getVersion()), user))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -85,18 +97,31 @@ public class AdminUserApiController {
         }
     }
 
+    /**
+     * Partial update. With If-Match, a stale ETag is rejected with 412 before anything is written.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody User userUpdate) {
-        return userService.getUserById(id)
-                .map(existingUser -> {
-                    if (userUpdate.getUsername() != null) existingUser.setUsername(userUpdate.getUsername());
-                    if (userUpdate.getEmail() != null) existingUser.setEmail(userUpdate.getEmail());
-                    if (userUpdate.getPassword() != null) existingUser.setPassword(userUpdate.getPassword());
-                    if (userUpdate.getRole() != null) existingUser.setRole(userUpdate.getRole());
-                    User updated = userService.updateUser(existingUser);
-                    return ResponseEntity.ok(updated);
-                })
-                .orElse(ResponseEntity.notFound().build());
+    public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody User userUpdate,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        try {
+            return userService.getUserById(id)
+                    .map(existingUser -> {
+                        String etag = ETags.forResource("user", id, existingUser.getVersion());
+                        if (!ETags.ifMatchHolds(ifMatch, etag)) return ETags.<User>preconditionFailed(etag);
+                        if (userUpdate.getUsername() != null) existingUser.setUsername(userUpdate.getUsername());
+                        if (userUpdate.getEmail() != null) existingUser.setEmail(userUpdate.getEmail());
+                        if (userUpdate.getPassword() != null) existingUser.setPassword(userUpdate.getPassword());
+                        if (userUpdate.getRole() != null) existingUser.setRole(userUpdate.getRole());
+                        User updated = userService.updateUser(existingUser);
+                        return ETags.ok(ETags.forResource("user", id, updated.getVersion()), updated);
+                    })
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Saved by someone else between our read and write
+            return ETags.preconditionFailed(userService.getVersion(id)
+                    .map(version -> ETags.forResource("user", id, version))
+                    .orElse(null));
+        }
     }
 
     @DeleteMapping("/delete/{id}")
@@ -1,51 +1,204 @@
 package com.app.admin.controller;
 
+import com.app.dto.TaskFilter;
 import com.app.entity.Task;
+import com.app.entity.TaskPriority;
+import com.app.dto.TagCount;
+import com.app.service.TaskEventBroadcaster;
 import com.app.service.TaskService;
+import com.app.service.TaskTagService;
+import com.app.util.ETags;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.*;
 
 @RestController
 @RequestMapping("/api/admin/tasks")
 public class TaskApiController {
 
+    private static final int MAX_BULK_IDS = 500;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_TAG_CLOUD = 500;
+
     @Autowired
     private TaskService taskService;
 
+    @Autowired
+    private TaskTagService taskTagService;
+
+    @Autowired
+    private TaskEventBroadcaster taskEventBroadcaster;
+
     @GetMapping
-    public ResponseEntity<List<Task>> getAllTasks() {
-        return ResponseEntity.ok(taskService.getAllTasks());
+    public ResponseEntity<List<Task>> getAllTasks(
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = collectionTag();
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) return ETags.notModified(etag);
+        return ETags.ok(etag, taskService.getAllTasks());
+    }
+
+    /**
+     * Filtered, cursor-paginated task list. All filters are optional and combined with AND;
+     * status and priority accept several values. sort is "created" (newest first, default)
+     * or "priority" (most urgent first).
+     */
+    @GetMapping("/query")
+    public ResponseEntity<Map<String, Object>> queryTasks(
+            @RequestParam(required = false) List<String> status,
+            @RequestParam(required = false) List<String> priority,
+            @RequestParam(required = false) String assignedTo,
+            @RequestParam(required = false) String tag,
+            @RequestParam(required = false) Long projectId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+            @RequestParam(defaultValue = TaskService.SORT_CREATED) String sort,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        Map<String, Object> response = new HashMap<>();
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        boolean byPriority = TaskService.SORT_PRIORITY.equals(sort);
+
+        TaskFilter filter = new TaskFilter();
+        if (status != null) {
+            filter.setStatuses(status.stream().map(String::toUpperCase).toList());
+        }
+        if (priority != null) {
+            List<Integer> ranks = new ArrayList<>();
+            for (String value : priority) {
+                TaskPriority parsed = TaskPriority.parse(value);
+                if (parsed == null) {
+                    response.put("success", false);
+                    response.put("error", "Unknown priority: " + value);
+                    return ResponseEntity.badRequest().body(response);
+                }
+                ranks.add(parsed.rank());
+            }
+            filter.setPriorityRanks(ranks);
+        }
+        filter.setAssignedTo(assignedTo != null && !assignedTo.isBlank() ? assignedTo : null);
+        filter.setTag(taskTagService.normalize(tag));
+        filter.setProjectId(projectId);
+        filter.setDueFrom(dueFrom);
+        filter.setDueTo(dueTo);
+
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf('|');
+                String key = decoded.substring(0, separator);
+                if (byPriority) {
+                    filter.setAfterPriorityRank(Integer.parseInt(key));
+                } else {
+                    filter.setAfterCreatedAt(LocalDateTime.parse(key));
+                }
+                filter.setAfterId(Long.parseLong(decoded.substring(separator + 1)));
+            } catch (Exception e) {
+                response.put("success", false);
+                response.put("error", "Invalid cursor");
+                return ResponseEntity.badRequest().body(response);
+            }
+        }
+
+        // Fetch one extra row to know whether another page exists
+        List<Task> rows = taskService.findTasks(filter, sort, pageSize + 1);
+        boolean hasMore = rows.size() > pageSize;
+        List<Task> items = hasMore ? rows.subList(0, pageSize) : rows;
+
+        String nextCursor = null;
+        if (hasMore) {
+            Task last = items.get(items.size() - 1);
+            String raw = (byPriority ? String.valueOf(last.getPriorityRank()) : String.valueOf(last.getCreatedAt()))
+                    + "|" + last.getId();
+            nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+        }
+
+        response.put("success", true);
+        response.put("items", items);
+        response.put("hasMore", hasMore);
+        response.put("nextCursor", nextCursor);
+        return ResponseEntity.ok(response);
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<Task> getTaskById(@PathVariable Long id) {
+    public ResponseEntity<Task> getTaskById(@PathVariable Long id,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        Optional<Long> version = taskService.getVersion(id);
+        if (version.isEmpty()) return ResponseEntity.notFound().build();
+        String etag = ETags.forResource("task", id, version.get());
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) return ETags.notModified(etag);
         return taskService.getTaskById(id)
-                .map(ResponseEntity::ok)
+                .map(task -> ETags.ok(ETags.forResource("task", id, task.getVersion()), task))
                 .orElse(ResponseEntity.notFound().build());
     }
 
     @GetMapping("/status/{status}")
-    public ResponseEntity<List<Task>> getTasksByStatus(@PathVariable String status) {
-        return ResponseEntity.ok(taskService.getTasksByStatus(status));
+    public ResponseEntity<List<Task>> getTasksByStatus(@PathVariable String status,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = collectionTag();
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) return ETags.notModified(etag);
+        return ETags.ok(etag, taskService.getTasksByStatus(status));
     }
 
     @GetMapping("/priority/{priority}")
-    public ResponseEntity<List<Task>> getTasksByPriority(@PathVariable String priority) {
-        return ResponseEntity.ok(taskService.getTasksByPriority(priority));
+    public ResponseEntity<List<Task>> getTasksByPriority(@PathVariable String priority,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = collectionTag();
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) return ETags.notModified(etag);
+        return ETags.ok(etag, taskService.getTasksByPriority(priority));
+    }
+
+    /**
+     * Tag cloud: tags with the number of tasks carrying each, most used first.
+     */
+    @GetMapping("/tags")
+    public ResponseEntity<List<TagCount>> getTagCloud(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(taskTagService.getTagCloud(Math.max(1, Math.min(limit, MAX_TAG_CLOUD))));
+    }
+
+    @GetMapping("/tags/{tag}")
+    public ResponseEntity<List<Task>> getTasksByTag(@PathVariable String tag,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String etag = collectionTag();
+        if (ETags.noneMatchHits(ifNoneMatch, etag)) return ETags.notModified(etag);
+        return ETags.ok(etag, taskService.getTasksByTag(tag));
+    }
+
+    /**
+     * Live board updates as Server-Sent Events: task.created, task.updated, task.status,
+     * task.deleted and task.bulk carry small diffs; resync asks the board to re-fetch.
+     */
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<SseEmitter> streamTaskEvents(
+            @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+        SseEmitter emitter = taskEventBroadcaster.subscribe(lastEventId);
+        if (emitter == null) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok()
+                .header("X-Accel-Buffering", "no")
+                .body(emitter);
+    }
+
+    @GetMapping("/events/stats")
+    public ResponseEntity<Map<String, Object>> getTaskEventStats() {
+        return ResponseEntity.ok(taskEventBroadcaster.stats());
     }
 
     @GetMapping("/stats")
     public ResponseEntity<Map<String, Long>> getTaskStats() {
-        Map<String, Long> stats = new HashMap<>();
-        stats.put("TODO", taskService.countTasksByStatus("TODO"));
-        stats.put("IN_PROGRESS", taskService.countTasksByStatus("IN_PROGRESS"));
-        stats.put("REVIEW", taskService.countTasksByStatus("REVIEW"));
-        stats.put("DONE", taskService.countTasksByStatus("DONE"));
-        stats.put("TOTAL", (long) taskService.getAllTasks().size());
-        return ResponseEntity.ok(stats);
+        return ResponseEntity.ok(taskService.getStatusCounts());
     }
 
     @PostMapping("/create")
@@ -56,11 +209,31 @@ public class TaskApiController {
         return ResponseEntity.ok(createdTask);
     }
 
+    /**
+     * Full update. With If-Match, the write only happens if the task is still at that ETag;
+     * otherwise 412 with the current ETag, so the client can re-fetch instead of overwriting.
+     */
     @PutMapping("/{id}")
-    public ResponseEntity<Task> updateTask(@PathVariable Long id, @RequestBody Task task) {
-        Task updated = taskService.updateTask(id, task);
-        if (updated == null) return ResponseEntity.notFound().build();
-        return ResponseEntity.ok(updated);
+    public ResponseEntity<Task> updateTask(@PathVariable Long id, @RequestBody Task task,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        Long expectedVersion = null;
+        if (ifMatch != null) {
+            Optional<Long> version = taskService.getVersion(id);
+            if (version.isEmpty()) return ResponseEntity.notFound().build();
+            String etag = ETags.forResource("task", id, version.get());
+            if (!ETags.ifMatchHolds(ifMatch, etag)) return ETags.preconditionFailed(etag);
+            expectedVersion = version.get();
+        }
+        try {
+            Task updated = taskService.updateTask(id, task, expectedVersion);
+            if (updated == null) return ResponseEntity.notFound().build();
+            return ETags.ok(ETags.forResource("task", id, updated.getVersion()), updated);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // Someone else saved the task between our read and write
+            return ETags.preconditionFailed(taskService.getVersion(id)
+                    .map(version -> ETags.forResource("task", id, version))
+                    .orElse(null));
+        }
     }
 
     @PatchMapping("/{id}/status")
@@ -72,11 +245,67 @@ public class TaskApiController {
         return ResponseEntity.ok(updated);
     }
 
+    /**
+     * Applies status, priority and/or assignee changes to many tasks at once, e.g. a multi-card board move.
+     * Body: {"ids": [1, 2, 3], "status": "DONE", "priority": "HIGH", "assignedTo": "alice"}.
+     * Omitted fields are left unchanged; "assignedTo": null unassigns.
+     */
+    @PatchMapping("/bulk")
+    public ResponseEntity<Map<String, Object>> bulkUpdate(@RequestBody Map<String, Object> body) {
+        Map<String, Object> response = new HashMap<>();
+        Set<Long> ids = new LinkedHashSet<>();
+        if (body.get("ids") instanceof List<?> rawIds) {
+            for (Object rawId : rawIds) {
+                if (rawId instanceof Number n) ids.add(n.longValue());
+            }
+        }
+        String status = blankToNull(body.get("status"));
+        String priority = blankToNull(body.get("priority"));
+        boolean updateAssignee = body.containsKey("assignedTo");
+        String assignedTo = blankToNull(body.get("assignedTo"));
+
+        if (ids.isEmpty() || (status == null && priority == null && !updateAssignee)) {
+            response.put("success", false);
+            response.put("error", "ids and at least one of status, priority or assignedTo are required");
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (ids.size() > MAX_BULK_IDS) {
+            response.put("success", false);
+            response.put("error", "At most " + MAX_BULK_IDS + " tasks can be updated at once");
+            return ResponseEntity.badRequest().body(response);
+        }
+        if (priority != null) {
+            TaskPriority parsed = TaskPriority.parse(priority);
+            if (parsed == null) {
+                response.put("success", false);
+                response.put("error", "Unknown priority: " + priority);
+                return ResponseEntity.badRequest().body(response);
+            }
+            priority = parsed.name();
+        }
+
+        int updated = taskService.bulkUpdate(ids, status, priority, updateAssignee, assignedTo);
+        response.put("success", true);
+        response.put("requested", ids.size());
+        response.put("updated", updated);
+        return ResponseEntity.ok(response);
+    }
+
     @DeleteMapping("/delete/{id}")
     public ResponseEntity<Map<String, String>> deleteTask(@PathVariable Long id) {
         boolean deleted = taskService.deleteTask(id);
         if (!deleted) return ResponseEntity.notFound().build();
         return ResponseEntity.ok(Collections.singletonMap("message", "Task deleted successfully"));
     }
-}
 
+    private static String blankToNull(Object value) {
+        if (value == null) return null;
+        String text = value.toString().trim();
+        return text.isEmpty() ? null : text;
+    }
+
+    // Any task write moves max(updatedAt) or the count, so one tag covers every task list
+    private String collectionTag() {
+        return ETags.forCollection("tasks", taskService.getCollectionVersion());
+    }
+}
@@ -1,23 +1,46 @@
 package com.app.config;
 
+import com.app.entity.ProjectFile;
+import com.app.service.ProjectFileService;
+import com.app.service.TaskTagService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.ApplicationArguments;
 import org.springframework.boot.ApplicationRunner;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Component;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
 @Component
 public class DatabaseInitializer implements ApplicationRunner {
 
+    private static final int TAG_BACKFILL_BATCH = 500;
+
     @Autowired
     private JdbcTemplate jdbcTemplate;
 
+    @Autowired
+    private ProjectFileService projectFileService;
+
+    @Autowired
+    private TaskTagService taskTagService;
+
+    @Value("${app.projects.files-backfill.batch-size:50}")
+    private int backfillBatchSize;
+
     @Override
     public void run(ApplicationArguments args) throws Exception {
         System.out.println("🚀 Starting Database Initialization...");
         try {
             // Check if users table exists and has required columns
             ensureUserTableStructure();
+            startProjectFilesBackfill();
+            backfillTaskPriorityRank();
+            backfillTaskTags();
             System.out.println("✅ Database initialization completed successfully");
         } catch (Exception e) {
             System.err.println("❌ Database initialization error: " + e.getMessage());
@@ -49,6 +72,134 @@ public class DatabaseInitializer implements ApplicationRunner {
         }
     }
 
+    /**
+     * One-time migration of the legacy projects.file_paths JSON into project_files.
+     * Every file is read to hash it, so this runs on its own thread and does not hold up startup.
+     * Projects that already have rows are skipped, so this is safe to run on every start.
+     */
+    private void startProjectFilesBackfill() {
+        Thread backfill = new Thread(this::backfillProjectFiles, "project-files-backfill");
+        backfill.setDaemon(true);
+        backfill.start();
+    }
+
+    private void backfillProjectFiles() {
+        System.out.println("📋 Backfilling project_files from projects.file_paths...");
+        try {
+            String pendingSql = "SELECT p.id, p.file_paths FROM projects p " +
+                    "WHERE p.id > ? AND p.file_paths IS NOT NULL AND p.file_paths <> '' " +
+                    "AND NOT EXISTS (SELECT 1 FROM project_files f WHERE f.project_id = p.id) " +
+                    "ORDER BY p.id LIMIT ?";
+            String insertSql = "INSERT INTO project_files (project_id, path, original_name, size, content_type, checksum, created_at) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+            // Keyset over project ids, so only one batch of rows is held in memory at a time
+            long afterId = 0;
+            int total = 0;
+            while (true) {
+                List<Long> projectIds = new ArrayList<>();
+                List<Object[]> pending = new ArrayList<>();
+                jdbcTemplate.query(pendingSql, rs -> {
+                    long projectId = rs.getLong("id");
+                    projectIds.add(projectId);
+                    for (String path : projectFileService.parseFilePaths(rs.getString("file_paths"))) {
+                        pending.add(new Object[]{projectId, path});
+                    }
+                }, afterId, backfillBatchSize);
+                if (projectIds.isEmpty()) {
+                    break;
+                }
+                afterId = projectIds.get(projectIds.size() - 1);
+
+                // Hash only after the query is closed, so no connection is held while files are read
+                List<ProjectFile> rows = new ArrayList<>();
+                for (Object[] file : pending) {
+                    String path = (String) file[1];
+                    if (projectFileService.resolveUpload(path) == null) {
+                        System.err.println("⚠️ Skipping file path outside the upload directory: " + path);
+                        continue;
+                    }
+                    rows.add(projectFileService.describeFromDisk((Long) file[0], path));
+                }
+
+                Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+                jdbcTemplate.batchUpdate(insertSql, rows, 100, (ps, file) -> {
+                    ps.setLong(1, file.getProjectId());
+                    ps.setString(2, file.getPath());
+                    ps.setString(3, file.getOriginalName());
+                    ps.setObject(4, file.getSize());
+                    ps.setString(5, file.getContentType());
+                    ps.setString(6, file.getChecksum());
+                    ps.setTimestamp(7, now);
+                });
+                total += rows.size();
+            }
+
+            if (total == 0) {
+                System.out.println("✅ project_files already up to date");
+            } else {
+                System.out.println("✅ Backfilled " + total + " project file rows");
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not backfill project_files: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Fills tasks.priority_rank for rows written before the column existed.
+     */
+    private void backfillTaskPriorityRank() {
+        try {
+            int updated = jdbcTemplate.update("UPDATE tasks SET priority_rank = CASE UPPER(priority) " +
+                    "WHEN 'LOW' THEN 1 WHEN 'MEDIUM' THEN 2 WHEN 'HIGH' THEN 3 WHEN 'URGENT' THEN 4 ELSE 0 END " +
+                    "WHERE priority_rank IS NULL");
+            if (updated > 0) {
+                System.out.println("✅ Backfilled priority_rank for " + updated + " tasks");
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not backfill task priority_rank: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Splits tasks.tags into task_tags for tasks that have tags but no rows yet.
+     */
+    private void backfillTaskTags() {
+        try {
+            String pendingSql = "SELECT t.id, t.tags FROM tasks t " +
+                    "WHERE t.id > ? AND t.tags IS NOT NULL AND t.tags <> '' " +
+                    "AND NOT EXISTS (SELECT 1 FROM task_tags g WHERE g.task_id = t.id) " +
+                    "ORDER BY t.id LIMIT ?";
+
+            // Keyset over task ids, one batch of tasks at a time, as in backfillProjectFiles
+            long afterId = 0;
+            int total = 0;
+            while (true) {
+                List<Long> taskIds = new ArrayList<>();
+                List<Object[]> rows = new ArrayList<>();
+                jdbcTemplate.query(pendingSql, rs -> {
+                    long taskId = rs.getLong("id");
+                    taskIds.add(taskId);
+                    for (String tag : taskTagService.parseTags(rs.getString("tags"))) {
+                        rows.add(new Object[]{taskId, tag});
+                    }
+                }, afterId, TAG_BACKFILL_BATCH);
+                if (taskIds.isEmpty()) {
+                    break;
+                }
+                afterId = taskIds.get(taskIds.size() - 1);
+
+                jdbcTemplate.batchUpdate("INSERT INTO task_tags (task_id, tag) VALUES (?, ?) ON CONFLICT DO NOTHING", rows);
+                total += rows.size();
+            }
+            if (total > 0) {
+                System.out.println("✅ Backfilled " + total + " task tag rows");
+            }
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not backfill task_tags: " + e.getMessage());
+        }
+    }
+
     private void addColumnIfNotExists(String columnName, String columnDefinition) {
         try {
             // Check if column exists
@@ -0,0 +1,78 @@
+package com.app.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Bounded worker pools used by background and fan-out work.
+ */
+@Configuration
+public class ExecutorConfig {
+
+    @Value("${app.upload.workers:4}")
+    private int uploadWorkers;
+
+    @Value("${app.images.workers:2}")
+    private int imageWorkers;
+
+    @Value("${app.invoices.workers:0}")
+    private int invoiceWorkers;
+
+    @Value("${app.tasks.events.workers:2}")
+    private int eventWorkers;
+
+    @Bean(name = "uploadExecutor")
+    public ThreadPoolTaskExecutor uploadExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(uploadWorkers);
+        executor.setMaxPoolSize(uploadWorkers);
+        executor.setQueueCapacity(100);
+        executor.setThreadNamePrefix("upload-");
+        // Run on the request thread instead of failing when the pool is saturated
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "imageExecutor")
+    public ThreadPoolTaskExecutor imageExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(imageWorkers);
+        executor.setMaxPoolSize(imageWorkers);
+        // Derivatives are optional; callers drop work rather than block once this fills up
+        executor.setQueueCapacity(200);
+        executor.setThreadNamePrefix("image-");
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "invoiceExecutor")
+    public ThreadPoolTaskExecutor invoiceExecutor() {
+        // PDF rendering is CPU-bound, so default to one worker per core
+        int workers = invoiceWorkers > 0 ? invoiceWorkers : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("invoice-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = "sseExecutor")
+    public ThreadPoolTaskExecutor sseExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(eventWorkers);
+        executor.setMaxPoolSize(eventWorkers);
+        // At most one pending drain per client; a rejected drain is retried on the next event
+        executor.setQueueCapacity(500);
+        executor.setThreadNamePrefix("sse-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,22 +1,21 @@
 package com.app.config;
 
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
-import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 
 @Configuration
-public class FileUploadConfig implements WebMvcConfigurer {
+public class FileUploadConfig {
 
     @Value("${app.upload.base-path:uploads}")
     private String uploadBasePath;
 
-    @Override
-    public void addResourceHandlers(ResourceHandlerRegistry registry) {
+    @PostConstruct
+    public void createUploadDirectories() {
         // Ensure upload directory exists
         Path uploadPath = Paths.get(uploadBasePath);
         try {
@@ -35,18 +34,9 @@ public class FileUploadConfig implements WebMvcConfigurer {
             System.err.println("❌ Failed to create upload directory: " + e.getMessage());
         }
 
-        // Add resource handler for uploaded files with no caching
-        String resourceLocation = "file:" + uploadPath.toAbsolutePath().toString().replace("\\", "/") + "/";
-
-        registry.addResourceHandler("/uploads/**")
-                .addResourceLocations(resourceLocation)
-                .setCachePeriod(0) // No caching for immediate access
-                .resourceChain(false); // Disable resource chain for better performance
-
-        System.out.println("📁 Configured file upload handler:");
-        System.out.println("- URL pattern: /uploads/**");
-        System.out.println("- Resource location: " + resourceLocation);
+        // Files are served by UploadFileController (ETag, immutable caching, Range, sendfile)
+        System.out.println("📁 Upload directory ready:");
+        System.out.println("- URL pattern: /uploads/** (UploadFileController)");
         System.out.println("- File system path: " + uploadPath.toAbsolutePath());
-        System.out.println("- Cache period: 0 (no caching)");
     }
 }
@@ -0,0 +1,19 @@
+package com.app.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregated billing amounts for one calendar month of invoice dates.
+ */
+public interface BillingMonthTotal {
+
+    Integer getYear();
+
+    Integer getMonth();
+
+    Long getCount();
+
+    BigDecimal getAmount();
+
+    BigDecimal getPaid();
+}
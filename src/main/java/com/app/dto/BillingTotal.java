@@ -0,0 +1,17 @@
+package com.app.dto;
+
+import java.math.BigDecimal;
+
+/**
+ * Aggregated billing amounts for one group (a status or a client).
+ */
+public interface BillingTotal {
+
+    String getLabel();
+
+    Long getCount();
+
+    BigDecimal getAmount();
+
+    BigDecimal getPaid();
+}
@@ -0,0 +1,56 @@
+package com.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Billing as returned by the admin API, with only the id, name and client of its project.
+ * Built directly by a JPQL constructor expression, so no lazy Project proxy is involved.
+ */
+@Data
+@NoArgsConstructor
+public class BillingView {
+    private Long id;
+    private BigDecimal amount;
+    private String status;
+    private String invoiceNumber;
+    private String clientName;
+    private LocalDateTime dueDate;
+    private LocalDateTime paidDate;
+    private String notes;
+    private LocalDateTime createdAt;
+    private LocalDateTime updatedAt;
+    private Long version;
+    private ProjectRef project;   // null when the invoice is not linked to a project
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ProjectRef {
+        private Long id;
+        private String name;
+        private String clientName;   // shown when the invoice has no client of its own
+    }
+
+    public BillingView(Long id, BigDecimal amount, String status, String invoiceNumber, String clientName,
+                       LocalDateTime dueDate, LocalDateTime paidDate, String notes,
+                       LocalDateTime createdAt, LocalDateTime updatedAt, Long version,
+                       Long projectId, String projectName, String projectClientName) {
+        this.id = id;
+        this.amount = amount;
+        this.status = status;
+        this.invoiceNumber = invoiceNumber;
+        this.clientName = clientName;
+        this.dueDate = dueDate;
+        this.paidDate = paidDate;
+        this.notes = notes;
+        this.createdAt = createdAt;
+        this.updatedAt = updatedAt;
+        this.version = version;
+        this.project = projectId != null ? new ProjectRef(projectId, projectName, projectClientName) : null;
+    }
+}
@@ -0,0 +1,13 @@
+package com.app.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Row count and latest update time of a table, used to tag list responses.
+ */
+public interface CollectionVersion {
+
+    Long getCount();
+
+    LocalDateTime getLastModified();
+}
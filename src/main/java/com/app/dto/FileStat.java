@@ -0,0 +1,19 @@
+package com.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Cached filesystem facts about one upload, as returned by the file manifest endpoint.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FileStat {
+    private String path;         // web path
+    private boolean exists;
+    private long size;
+    private String contentType;
+    private Long lastModified;   // epoch millis, null when missing
+}
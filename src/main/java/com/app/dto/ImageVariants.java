@@ -0,0 +1,22 @@
+package com.app.dto;
+
+import com.app.entity.ImageDerivative;
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import lombok.Value;
+
+/**
+ * Resized variants and blur placeholder of one uploaded image, as embedded in project responses.
+ */
+@Value
+public class ImageVariants {
+    Integer width;        // of the original
+    Integer height;
+    String placeholder;   // data: URI
+    @JsonRawValue
+    String variants;      // e.g. {"320":{"jpg":"/uploads/...","webp":"/uploads/..."}}
+
+    public static ImageVariants from(ImageDerivative derivative) {
+        return new ImageVariants(derivative.getWidth(), derivative.getHeight(),
+                derivative.getPlaceholder(), derivative.getVariants());
+    }
+}
@@ -0,0 +1,32 @@
+package com.app.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lightweight projection of a project used for list views.
+ * Leaves out the large description and filePaths columns.
+ */
+public interface ProjectSummary {
+
+    Long getId();
+
+    String getName();
+
+    String getStatus();
+
+    String getClientName();
+
+    String getCategory();
+
+    String getImageUrl();
+
+    Double getBudget();
+
+    Integer getProgress();
+
+    LocalDateTime getStartDate();
+
+    LocalDateTime getEndDate();
+
+    LocalDateTime getCreatedAt();
+}
@@ -0,0 +1,38 @@
+package com.app.dto;
+
+import com.app.entity.Project;
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Read-only copy of a project as served by the public API. The public lists are cached and
+ * shared between requests, so they hold these snapshots rather than managed Project entities.
+ * Same JSON shape as Project, plus the variants and placeholder of the main image.
+ */
+@Value
+public class PublicProject {
+    Long id;
+    String name;
+    String description;
+    String status;
+    LocalDateTime startDate;
+    LocalDateTime endDate;
+    String imageUrl;
+    String clientName;
+    String category;
+    Double budget;
+    Integer progress;
+    String filePaths;
+    LocalDateTime createdAt;
+    LocalDateTime updatedAt;
+    Long version;
+    ImageVariants image;   // null until derivatives of imageUrl exist
+
+    public static PublicProject from(Project project, ImageVariants image) {
+        return new PublicProject(project.getId(), project.getName(), project.getDescription(), project.getStatus(),
+                project.getStartDate(), project.getEndDate(), project.getImageUrl(), project.getClientName(),
+                project.getCategory(), project.getBudget(), project.getProgress(), project.getFilePaths(),
+                project.getCreatedAt(), project.getUpdatedAt(), project.getVersion(), image);
+    }
+}
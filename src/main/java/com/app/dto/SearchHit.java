@@ -0,0 +1,18 @@
+package com.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One result of the admin global search.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHit {
+    private String type;     // PROJECT, TASK, CONTACT, BILLING, USER
+    private Long id;
+    private String title;
+    private String subtitle;
+}
@@ -0,0 +1,20 @@
+package com.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of storing one uploaded file in the content-addressed upload directory.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class StoredUpload {
+    private String path;          // web path, e.g. /uploads/projects/<sha256>.pdf
+    private String originalName;
+    private long size;
+    private String contentType;
+    private String checksum;      // SHA-256 hex, also the stored file name
+    private boolean deduplicated; // true when identical bytes were already on disk
+}
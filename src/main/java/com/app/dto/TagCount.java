@@ -0,0 +1,11 @@
+package com.app.dto;
+
+/**
+ * Number of tasks carrying one tag, for the tag cloud.
+ */
+public interface TagCount {
+
+    String getTag();
+
+    Long getCount();
+}
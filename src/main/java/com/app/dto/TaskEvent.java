@@ -0,0 +1,17 @@
+package com.app.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One change on the task board, as pushed to SSE subscribers.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskEvent {
+    private long id;      // monotonically increasing, sent as the SSE event id
+    private String type;  // task.created, task.updated, task.status, task.deleted, task.bulk, resync
+    private Object data;  // small diff; only task.created carries the whole task
+}
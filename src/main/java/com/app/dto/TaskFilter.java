@@ -0,0 +1,28 @@
+package com.app.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Criteria for the paginated task query. Every field is optional; set fields are ANDed.
+ */
+@Data
+@NoArgsConstructor
+public class TaskFilter {
+    private List<String> statuses;
+    private List<Integer> priorityRanks;  // TaskPriority ranks, not names
+    private String assignedTo;
+    private String tag;                   // normalized, see TaskTagService
+    private Long projectId;
+    private LocalDate dueFrom;            // inclusive
+    private LocalDate dueTo;              // inclusive
+
+    // Keyset position: the last row of the previous page, in the sort's key
+    private LocalDateTime afterCreatedAt;
+    private Integer afterPriorityRank;
+    private Long afterId;
+}
@@ -0,0 +1,11 @@
+package com.app.dto;
+
+/**
+ * Number of tasks in one status.
+ */
+public interface TaskStatusCount {
+
+    String getStatus();
+
+    Long getCount();
+}
@@ -1,5 +1,7 @@
 package com.app.entity;
 
+import com.app.service.SearchIndexListener;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,7 +11,10 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "billing")
+@EntityListeners(SearchIndexListener.class)
+@Table(name = "billing", indexes = {
+        @Index(name = "idx_billing_status_due_date", columnList = "status, due_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -50,6 +55,12 @@ public class Billing {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Bumped by Hibernate on every update; also the source of the admin API ETag
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -1,9 +1,11 @@
 package com.app.entity;
 
+import com.app.service.SearchIndexListener;
 import jakarta.persistence.*;
 import java.time.LocalDateTime;
 
 @Entity
+@EntityListeners(SearchIndexListener.class)
 @Table(name = "contact_forms")
 public class ContactForm {
 
@@ -0,0 +1,48 @@
+package com.app.entity;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "image_derivatives",
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_image_derivatives_source_path", columnNames = {"source_path"})
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageDerivative {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "source_path", nullable = false, length = 500)
+    private String sourcePath; // web path of the original upload
+
+    @Column
+    private Integer width;
+
+    @Column
+    private Integer height;
+
+    @Column(columnDefinition = "TEXT")
+    private String placeholder; // tiny blurred preview as a data: URI
+
+    @JsonRawValue
+    @Column(columnDefinition = "TEXT")
+    private String variants; // JSON object, e.g. {"320":{"jpg":"/uploads/...","webp":"/uploads/..."}}
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -1,14 +1,21 @@
 package com.app.entity;
 
+import com.app.dto.ImageVariants;
+import com.app.service.SearchIndexListener;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.util.Map;
 
 @Entity
-@Table(name = "projects")
+@EntityListeners(SearchIndexListener.class)
+@Table(name = "projects", indexes = {
+        @Index(name = "idx_projects_created_at_id", columnList = "created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -57,6 +64,17 @@ public class Project {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Bumped by Hibernate on every update; also the source of the admin API ETag
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
+    // Variants of the project's image files, keyed by path; filled in by the admin list endpoint
+    @Transient
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    private Map<String, ImageVariants> images;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
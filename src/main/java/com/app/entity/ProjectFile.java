@@ -0,0 +1,54 @@
+package com.app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "project_files",
+        indexes = {
+                @Index(name = "idx_project_files_project_id", columnList = "project_id"),
+                @Index(name = "idx_project_files_path", columnList = "path"),
+                @Index(name = "idx_project_files_checksum", columnList = "checksum")
+        },
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_project_files_project_path", columnNames = {"project_id", "path"})
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProjectFile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "project_id", nullable = false)
+    private Long projectId;
+
+    @Column(nullable = false, length = 500)
+    private String path; // web path, e.g. /uploads/projects/brochure.pdf
+
+    @Column(name = "original_name")
+    private String originalName;
+
+    @Column
+    private Long size;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(length = 64)
+    private String checksum; // SHA-256 hex
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -1,11 +1,18 @@
 package com.app.entity;
 
+import com.app.service.SearchIndexListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "tasks")
+@EntityListeners(SearchIndexListener.class)
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_status_priority_rank_id", columnList = "status, priority_rank, id"),
+        @Index(name = "idx_tasks_status_created_at_id", columnList = "status, created_at, id")
+})
 public class Task {
 
     @Id
@@ -24,6 +31,11 @@ public class Task {
     @Column(nullable = false)
     private String priority; // LOW, MEDIUM, HIGH, URGENT
 
+    // Ordinal of priority (see TaskPriority), kept in step by setPriority and the callbacks
+    @JsonIgnore
+    @Column(name = "priority_rank")
+    private Integer priorityRank;
+
     private String assignedTo;
 
     private Long projectId;
@@ -40,15 +52,23 @@ public class Task {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Bumped by Hibernate on every update; also the source of the admin API ETag
+    @Version
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @Column(nullable = false, columnDefinition = "bigint default 0")
+    private Long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        priorityRank = TaskPriority.rankOf(priority);
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        priorityRank = TaskPriority.rankOf(priority);
     }
 
     // Constructors
@@ -101,6 +121,11 @@ public class Task {
 
     public void setPriority(String priority) {
         this.priority = priority;
+        this.priorityRank = TaskPriority.rankOf(priority);
+    }
+
+    public Integer getPriorityRank() {
+        return priorityRank;
     }
 
     public String getAssignedTo() {
@@ -158,5 +183,13 @@ public class Task {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
 
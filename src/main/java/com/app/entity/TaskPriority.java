@@ -0,0 +1,33 @@
+package com.app.entity;
+
+/**
+ * Task priorities in ascending order of urgency.
+ * {@link #rank()} is what gets stored in tasks.priority_rank, so ORDER BY sorts by real urgency.
+ */
+public enum TaskPriority {
+    LOW,
+    MEDIUM,
+    HIGH,
+    URGENT;
+
+    public int rank() {
+        return ordinal() + 1;
+    }
+
+    public static TaskPriority parse(String value) {
+        if (value == null) return null;
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Rank for a stored priority string; 0 for unknown values so they sort last.
+     */
+    public static int rankOf(String value) {
+        TaskPriority priority = parse(value);
+        return priority != null ? priority.rank() : 0;
+    }
+}
@@ -0,0 +1,34 @@
+package com.app.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One normalized tag on a task. Derived from the free-form Task.tags string so
+ * tag lookups are an index scan instead of string matching.
+ */
+@Entity
+@Table(name = "task_tags",
+        indexes = {
+                @Index(name = "idx_task_tags_tag_task_id", columnList = "tag, task_id")
+        },
+        uniqueConstraints = {
+                @UniqueConstraint(name = "uk_task_tags_task_tag", columnNames = {"task_id", "tag"})
+        })
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "task_id", nullable = false)
+    private Long taskId;
+
+    @Column(nullable = false, length = 100)
+    private String tag; // lower-case, trimmed
+}
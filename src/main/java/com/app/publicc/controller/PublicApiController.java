@@ -1,10 +1,13 @@
 package com.app.publicc.controller;
 
-import com.app.entity.Project;
+import com.app.dto.PublicProject;
 import com.app.entity.ContactForm;
+import com.app.entity.ImageDerivative;
 import com.app.service.ProjectService;
-import com.app.service.ContactFormService;
+import com.app.service.ContactFormBatchWriter;
+import com.app.service.ImageDerivativeService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,24 +19,46 @@ import java.util.HashMap;
 @RequestMapping("/api")
 public class PublicApiController {
 
+    private static final int MAX_FIELD_LENGTH = 255;
+    private static final int MAX_IMAGE_PATHS = 50;
+
     @Autowired
     private ProjectService projectService;
 
     @Autowired
-    private ContactFormService contactFormService;
+    private ContactFormBatchWriter contactFormBatchWriter;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    @Value("${app.projects.latest.default-size:6}")
+    private int defaultLatestSize;
 
     @GetMapping("/projects/latest")
-    public ResponseEntity<List<Project>> getLatestProjects() {
-        List<Project> projects = projectService.getLatestProjects();
+    public ResponseEntity<List<PublicProject>> getLatestProjects(
+            @RequestParam(required = false) Integer limit) {
+        List<PublicProject> projects = projectService.getLatestPublicProjects(limit != null ? limit : defaultLatestSize);
         return ResponseEntity.ok(projects);
     }
 
     @GetMapping("/projects/all")
-    public ResponseEntity<List<Project>> getAllProjects() {
-        List<Project> projects = projectService.getAllProjects();
+    public ResponseEntity<List<PublicProject>> getAllProjects() {
+        List<PublicProject> projects = projectService.getPublicProjects();
         return ResponseEntity.ok(projects);
     }
 
+    /**
+     * Resized variants and blur placeholders for the given upload paths (e.g. project imageUrl values).
+     * Paths without derivatives yet are simply absent from the result. At most MAX_IMAGE_PATHS per request.
+     */
+    @GetMapping("/projects/images")
+    public ResponseEntity<List<ImageDerivative>> getProjectImages(@RequestParam List<String> paths) {
+        if (paths.size() > MAX_IMAGE_PATHS) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(imageDerivativeService.getDerivatives(paths));
+    }
+
     @PostMapping("/contact")
     public ResponseEntity<Map<String, String>> submitContactForm(@RequestBody ContactForm contactForm) {
         Map<String, String> response = new HashMap<>();
@@ -70,7 +95,15 @@ public class PublicApiController {
                 contactForm.setMessage(null);
             }
 
-            contactFormService.saveContactForm(contactForm);
+            // Submissions are written after we reply, so reject now what the table would refuse later
+            if (tooLong(contactForm.getName()) || tooLong(contactForm.getEmail()) || tooLong(contactForm.getPhone())
+                    || tooLong(contactForm.getSubject()) || tooLong(contactForm.getService())) {
+                response.put("status", "error");
+                response.put("message", "Please keep each field under " + MAX_FIELD_LENGTH + " characters.");
+                return ResponseEntity.badRequest().body(response);
+            }
+
+            contactFormBatchWriter.submit(contactForm);
             response.put("status", "success");
             response.put("message", "Thank you for your message! We'll get back to you soon.");
             return ResponseEntity.ok(response);
@@ -80,5 +113,8 @@ public class PublicApiController {
             return ResponseEntity.badRequest().body(response);
         }
     }
-}
 
+    private static boolean tooLong(String value) {
+        return value != null && value.length() > MAX_FIELD_LENGTH;
+    }
+}
@@ -1,14 +1,67 @@
 package com.app.repository;
 
+import com.app.dto.BillingMonthTotal;
+import com.app.dto.BillingTotal;
+import com.app.dto.BillingView;
+import com.app.dto.CollectionVersion;
 import com.app.entity.Billing;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BillingRepository extends JpaRepository<Billing, Long> {
     List<Billing> findByStatus(String status);
     List<Billing> findByProjectId(Long projectId);
-}
 
+    String VIEW_SELECT = "SELECT new com.app.dto.BillingView(b.id, b.amount, b.status, b.invoiceNumber, " +
+            "b.clientName, b.dueDate, b.paidDate, b.notes, b.createdAt, b.updatedAt, b.version, p.id, p.name, p.clientName) " +
+            "FROM Billing b LEFT JOIN b.project p ";
+
+    @Query(VIEW_SELECT + "ORDER BY b.id")
+    List<BillingView> findAllViews();
+
+    @Query(VIEW_SELECT + "WHERE b.id = :id")
+    Optional<BillingView> findViewById(Long id);
+
+    @Query("SELECT b FROM Billing b WHERE b.status IN :statuses " +
+           "AND b.createdAt >= :from AND b.createdAt < :to ORDER BY b.id")
+    List<Billing> findForInvoiceBatch(Collection<String> statuses, LocalDateTime from, LocalDateTime to);
+
+    // Aggregates over invoice date (created_at) in [from, to)
+
+    @Query("SELECT b.status AS label, COUNT(b) AS count, COALESCE(SUM(b.amount), 0) AS amount, " +
+           "COALESCE(SUM(CASE WHEN b.status = 'PAID' THEN b.amount ELSE 0 END), 0) AS paid " +
+           "FROM Billing b WHERE b.createdAt >= :from AND b.createdAt < :to " +
+           "GROUP BY b.status ORDER BY b.status")
+    List<BillingTotal> sumByStatus(LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT YEAR(b.createdAt) AS year, MONTH(b.createdAt) AS month, COUNT(b) AS count, " +
+           "COALESCE(SUM(b.amount), 0) AS amount, " +
+           "COALESCE(SUM(CASE WHEN b.status = 'PAID' THEN b.amount ELSE 0 END), 0) AS paid " +
+           "FROM Billing b WHERE b.createdAt >= :from AND b.createdAt < :to " +
+           "GROUP BY YEAR(b.createdAt), MONTH(b.createdAt) " +
+           "ORDER BY YEAR(b.createdAt), MONTH(b.createdAt)")
+    List<BillingMonthTotal> sumByMonth(LocalDateTime from, LocalDateTime to);
+
+    @Query("SELECT b.clientName AS label, COUNT(b) AS count, COALESCE(SUM(b.amount), 0) AS amount, " +
+           "COALESCE(SUM(CASE WHEN b.status = 'PAID' THEN b.amount ELSE 0 END), 0) AS paid " +
+           "FROM Billing b WHERE b.createdAt >= :from AND b.createdAt < :to " +
+           "GROUP BY b.clientName ORDER BY COALESCE(SUM(b.amount), 0) DESC")
+    List<BillingTotal> sumByClient(LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    @Query("SELECT b.version FROM Billing b WHERE b.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Query("SELECT COUNT(b) AS count, MAX(b.updatedAt) AS lastModified FROM Billing b")
+    CollectionVersion findCollectionVersion();
+
+    @Query("SELECT p.version FROM Billing b JOIN b.project p WHERE b.id = :id")
+    Optional<Long> findProjectVersionById(Long id);
+}
@@ -0,0 +1,19 @@
+package com.app.repository;
+
+import com.app.dto.CollectionVersion;
+import com.app.entity.ImageDerivative;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ImageDerivativeRepository extends JpaRepository<ImageDerivative, Long> {
+    boolean existsBySourcePath(String sourcePath);
+    List<ImageDerivative> findBySourcePathIn(Collection<String> sourcePaths);
+
+    @Query("SELECT COUNT(d) AS count, MAX(d.createdAt) AS lastModified FROM ImageDerivative d")
+    CollectionVersion findCollectionVersion();
+}
@@ -0,0 +1,32 @@
+package com.app.repository;
+
+import com.app.entity.ProjectFile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ProjectFileRepository extends JpaRepository<ProjectFile, Long> {
+    List<ProjectFile> findByProjectIdOrderByIdAsc(Long projectId);
+
+    List<ProjectFile> findByProjectIdInOrderByProjectIdAscIdAsc(Collection<Long> projectIds);
+
+    @Query("SELECT f.path FROM ProjectFile f WHERE f.projectId = :projectId ORDER BY f.id")
+    List<String> findPathsByProjectId(Long projectId);
+
+    boolean existsByProjectIdAndPath(Long projectId, String path);
+
+    long countByPath(String path);
+
+    @Modifying
+    @Query("DELETE FROM ProjectFile f WHERE f.projectId = :projectId AND f.path = :path")
+    int deleteByProjectIdAndPath(Long projectId, String path);
+
+    @Modifying
+    @Query("DELETE FROM ProjectFile f WHERE f.projectId = :projectId")
+    int deleteByProjectId(Long projectId);
+}
@@ -1,11 +1,16 @@
 package com.app.repository;
 
+import com.app.dto.CollectionVersion;
+import com.app.dto.ProjectSummary;
 import com.app.entity.Project;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, Long> {
@@ -13,5 +18,27 @@ public interface ProjectRepository extends JpaRepository<Project, Long> {
 
     @Query("SELECT p FROM Project p ORDER BY p.createdAt DESC")
     List<Project> findLatestProjects();
-}
 
+    @Query("SELECT p FROM Project p ORDER BY p.createdAt DESC, p.id DESC")
+    List<Project> findLatestProjects(Pageable pageable);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.status AS status, p.clientName AS clientName, " +
+           "p.category AS category, p.imageUrl AS imageUrl, p.budget AS budget, p.progress AS progress, " +
+           "p.startDate AS startDate, p.endDate AS endDate, p.createdAt AS createdAt " +
+           "FROM Project p ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProjectSummary> findSummaryPage(Pageable pageable);
+
+    @Query("SELECT p.id AS id, p.name AS name, p.status AS status, p.clientName AS clientName, " +
+           "p.category AS category, p.imageUrl AS imageUrl, p.budget AS budget, p.progress AS progress, " +
+           "p.startDate AS startDate, p.endDate AS endDate, p.createdAt AS createdAt " +
+           "FROM Project p " +
+           "WHERE p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<ProjectSummary> findSummaryPageBefore(LocalDateTime createdAt, Long id, Pageable pageable);
+
+    @Query("SELECT p.version FROM Project p WHERE p.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Query("SELECT COUNT(p) AS count, MAX(p.updatedAt) AS lastModified FROM Project p")
+    CollectionVersion findCollectionVersion();
+}
@@ -1,18 +1,56 @@
 package com.app.repository;
 
+import com.app.dto.CollectionVersion;
+import com.app.dto.TaskStatusCount;
 import com.app.entity.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, Long> {
+public interface TaskRepository extends JpaRepository<Task, Long>, JpaSpecificationExecutor<Task> {
     List<Task> findByStatus(String status);
     List<Task> findByPriority(String priority);
     List<Task> findByAssignedTo(String assignedTo);
     List<Task> findByProjectId(Long projectId);
-    List<Task> findByStatusOrderByPriorityDesc(String status);
+    List<Task> findByStatusOrderByPriorityRankDescIdDesc(String status);
     List<Task> findAllByOrderByCreatedAtDesc();
-}
 
+    @Query("SELECT t.status AS status, COUNT(t) AS count FROM Task t GROUP BY t.status")
+    List<TaskStatusCount> countGroupedByStatus();
+
+    @Query("SELECT t FROM Task t WHERE t.id IN (SELECT g.taskId FROM TaskTag g WHERE g.tag = :tag) " +
+           "ORDER BY t.createdAt DESC, t.id DESC")
+    List<Task> findByTag(String tag);
+
+    @Query("SELECT t.status AS status, COUNT(t) AS count FROM Task t WHERE t.id IN :ids GROUP BY t.status")
+    List<TaskStatusCount> countGroupedByStatusForIds(Collection<Long> ids);
+
+    // Bulk updates bypass entity callbacks, so updatedAt and version are set explicitly
+
+    @Modifying
+    @Query("UPDATE Task t SET t.status = :status, t.updatedAt = :now, t.version = t.version + 1 WHERE t.id IN :ids")
+    int updateStatusByIdIn(Collection<Long> ids, String status, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.priority = :priority, t.priorityRank = :priorityRank, " +
+           "t.updatedAt = :now, t.version = t.version + 1 WHERE t.id IN :ids")
+    int updatePriorityByIdIn(Collection<Long> ids, String priority, int priorityRank, LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.assignedTo = :assignedTo, t.updatedAt = :now, t.version = t.version + 1 WHERE t.id IN :ids")
+    int updateAssignedToByIdIn(Collection<Long> ids, String assignedTo, LocalDateTime now);
+
+    @Query("SELECT t.version FROM Task t WHERE t.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Query("SELECT COUNT(t) AS count, MAX(t.updatedAt) AS lastModified FROM Task t")
+    CollectionVersion findCollectionVersion();
+}
@@ -0,0 +1,71 @@
+package com.app.repository;
+
+import com.app.dto.TaskFilter;
+import com.app.entity.Task;
+import com.app.entity.TaskTag;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds the WHERE clause for {@link TaskFilter}, including the keyset condition
+ * for whichever sort the page was requested with.
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> matching(TaskFilter filter) {
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+
+            if (filter.getStatuses() != null && !filter.getStatuses().isEmpty()) {
+                predicates.add(root.get("status").in(filter.getStatuses()));
+            }
+            if (filter.getPriorityRanks() != null && !filter.getPriorityRanks().isEmpty()) {
+                predicates.add(root.get("priorityRank").in(filter.getPriorityRanks()));
+            }
+            if (filter.getAssignedTo() != null) {
+                predicates.add(cb.equal(root.get("assignedTo"), filter.getAssignedTo()));
+            }
+            if (filter.getTag() != null) {
+                // id IN (SELECT task_id FROM task_tags WHERE tag = ?), served by the (tag, task_id) index
+                Subquery<Long> tagged = query.subquery(Long.class);
+                Root<TaskTag> tag = tagged.from(TaskTag.class);
+                tagged.select(tag.get("taskId")).where(cb.equal(tag.get("tag"), filter.getTag()));
+                predicates.add(root.get("id").in(tagged));
+            }
+            if (filter.getProjectId() != null) {
+                predicates.add(cb.equal(root.get("projectId"), filter.getProjectId()));
+            }
+            if (filter.getDueFrom() != null) {
+                predicates.add(cb.greaterThanOrEqualTo(root.get("dueDate"), filter.getDueFrom()));
+            }
+            if (filter.getDueTo() != null) {
+                predicates.add(cb.lessThanOrEqualTo(root.get("dueDate"), filter.getDueTo()));
+            }
+
+            // Both sorts are descending with id as the tie-breaker
+            if (filter.getAfterId() != null) {
+                if (filter.getAfterPriorityRank() != null) {
+                    predicates.add(cb.or(
+                            cb.lessThan(root.get("priorityRank"), filter.getAfterPriorityRank()),
+                            cb.and(cb.equal(root.get("priorityRank"), filter.getAfterPriorityRank()),
+                                    cb.lessThan(root.get("id"), filter.getAfterId()))));
+                } else if (filter.getAfterCreatedAt() != null) {
+                    predicates.add(cb.or(
+                            cb.lessThan(root.get("createdAt"), filter.getAfterCreatedAt()),
+                            cb.and(cb.equal(root.get("createdAt"), filter.getAfterCreatedAt()),
+                                    cb.lessThan(root.get("id"), filter.getAfterId()))));
+                }
+            }
+
+            return cb.and(predicates.toArray(new Predicate[0]));
+        };
+    }
+}
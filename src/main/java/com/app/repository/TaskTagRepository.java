@@ -0,0 +1,30 @@
+package com.app.repository;
+
+import com.app.dto.TagCount;
+import com.app.entity.TaskTag;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface TaskTagRepository extends JpaRepository<TaskTag, Long> {
+
+    @Query("SELECT t.tag FROM TaskTag t WHERE t.taskId = :taskId")
+    List<String> findTagsByTaskId(Long taskId);
+
+    @Query("SELECT t.tag AS tag, COUNT(t) AS count FROM TaskTag t GROUP BY t.tag ORDER BY COUNT(t) DESC, t.tag")
+    List<TagCount> countByTag(Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM TaskTag t WHERE t.taskId = :taskId AND t.tag IN :tags")
+    int deleteByTaskIdAndTagIn(Long taskId, Collection<String> tags);
+
+    @Modifying
+    @Query("DELETE FROM TaskTag t WHERE t.taskId = :taskId")
+    int deleteByTaskId(Long taskId);
+}
@@ -1,7 +1,9 @@
 package com.app.repository;
 
+import com.app.dto.CollectionVersion;
 import com.app.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -10,5 +12,10 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     Optional<User> findByUsername(String username);
     Optional<User> findByEmail(String email);
-}
 
+    @Query("SELECT u.version FROM User u WHERE u.id = :id")
+    Optional<Long> findVersionById(Long id);
+
+    @Query("SELECT COUNT(u) AS count, MAX(u.updatedAt) AS lastModified FROM User u")
+    CollectionVersion findCollectionVersion();
+}
@@ -0,0 +1,116 @@
+package com.app.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Exports the billing ledger as CSV, one row per invoice, read through StreamingQueryService.
+ */
+@Service
+public class BillingExportService {
+
+    private static final String[] HEADER = {
+            "id", "invoice_number", "client_name", "project_id", "project_name", "amount",
+            "status", "created_at", "due_date", "paid_date", "notes"};
+
+    @Autowired
+    private StreamingQueryService streamingQueryService;
+
+    /**
+     * Writes matching invoices ordered by id. Dates filter on created_at in [from, to); a null bound
+     * is not applied, so rows without a created_at are only left out when a date range is given.
+     * Returns the number of rows written.
+     */
+    public long writeCsv(Collection<String> statuses, LocalDateTime from, LocalDateTime to, OutputStream out) throws IOException {
+        StringBuilder sql = new StringBuilder(
+                "SELECT b.id, b.invoice_number, b.client_name, b.project_id, p.name, b.amount, " +
+                "b.status, b.created_at, b.due_date, b.paid_date, b.notes " +
+                "FROM billing b LEFT JOIN projects p ON p.id = b.project_id WHERE 1 = 1");
+        List<Object> args = new ArrayList<>();
+        if (from != null) {
+            sql.append(" AND b.created_at >= ?");
+            args.add(Timestamp.valueOf(from));
+        }
+        if (to != null) {
+            sql.append(" AND b.created_at < ?");
+            args.add(Timestamp.valueOf(to));
+        }
+        if (statuses != null && !statuses.isEmpty()) {
+            sql.append(" AND b.status IN (").append(String.join(", ", Collections.nCopies(statuses.size(), "?"))).append(")");
+            args.addAll(statuses);
+        }
+        sql.append(" ORDER BY b.id");
+
+        // Not closed here: the caller owns the response stream
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        writer.write('\uFEFF'); // byte order mark so Excel opens the file as UTF-8
+        writeRow(writer, (Object[]) HEADER);
+
+        long[] rows = {0};
+        try {
+            streamingQueryService.query(sql.toString(), rs -> {
+                try {
+                    writeRow(writer,
+                            rs.getLong(1), rs.getString(2), rs.getString(3), rs.getObject(4), rs.getString(5),
+                            rs.getBigDecimal(6), rs.getString(7), rs.getTimestamp(8), rs.getTimestamp(9),
+                            rs.getTimestamp(10), rs.getString(11));
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }, args.toArray());
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return rows[0];
+    }
+
+    private void writeRow(Writer writer, Object... values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) writer.write(',');
+            writer.write(csvValue(values[i]));
+        }
+        writer.write("\r\n");
+    }
+
+    private String csvValue(Object value) {
+        if (value == null) return "";
+        String text;
+        if (value instanceof Timestamp ts) {
+            text = ts.toLocalDateTime().toString();
+        } else if (value instanceof BigDecimal bd) {
+            text = bd.toPlainString();
+        } else if (value instanceof String str) {
+            // Client names and notes are user input; keep spreadsheets from running them as formulas
+            text = isFormulaLike(str) ? "'" + str : str;
+        } else {
+            text = value.toString();
+        }
+        if (text.startsWith("'") || text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    private boolean isFormulaLike(String text) {
+        if (text.isEmpty()) return false;
+        char first = text.charAt(0);
+        return first == '=' || first == '+' || first == '-' || first == '@' || first == '\t' || first == '\r';
+    }
+}
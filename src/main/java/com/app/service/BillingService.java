@@ -1,11 +1,22 @@
 package com.app.service;
 
+import com.app.dto.BillingMonthTotal;
+import com.app.dto.BillingTotal;
+import com.app.dto.BillingView;
+import com.app.dto.CollectionVersion;
 import com.app.entity.Billing;
 import com.app.repository.BillingRepository;
+import com.app.repository.ProjectRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -14,6 +25,12 @@ public class BillingService {
     @Autowired
     private BillingRepository billingRepository;
 
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private InvoicePdfCache invoicePdfCache;
+
     public List<Billing> getAllBillings() {
         return billingRepository.findAll();
     }
@@ -22,6 +39,34 @@ public class BillingService {
         return billingRepository.findById(id);
     }
 
+    public List<BillingView> getAllBillingViews() {
+        return billingRepository.findAllViews();
+    }
+
+    public Optional<BillingView> getBillingViewById(Long id) {
+        return billingRepository.findViewById(id);
+    }
+
+    public Optional<Long> getVersion(Long id) {
+        return billingRepository.findVersionById(id);
+    }
+
+    /**
+     * Version of the project linked to a billing, empty when there is none.
+     * The project name is part of BillingView, so it takes part in the billing's ETag.
+     */
+    public Optional<Long> getProjectVersion(Long id) {
+        return billingRepository.findProjectVersionById(id);
+    }
+
+    public CollectionVersion getCollectionVersion() {
+        return billingRepository.findCollectionVersion();
+    }
+
+    public CollectionVersion getProjectCollectionVersion() {
+        return projectRepository.findCollectionVersion();
+    }
+
     public List<Billing> getBillingsByStatus(String status) {
         return billingRepository.findByStatus(status);
     }
@@ -31,6 +76,11 @@ public class BillingService {
     }
 
     public Billing createBilling(Billing billing) {
+        // Clients link a project as {"id": ...}; that stub has no version, so swap in a managed reference
+        if (billing.getProject() != null) {
+            Long projectId = billing.getProject().getId();
+            billing.setProject(projectId != null ? projectRepository.getReferenceById(projectId) : null);
+        }
         return billingRepository.save(billing);
     }
 
@@ -40,6 +90,45 @@ public class BillingService {
 
     public void deleteBilling(Long id) {
         billingRepository.deleteById(id);
+        invoicePdfCache.evict(id);
     }
-}
 
+    /**
+     * Totals by status, month and client for invoices created in [from, to).
+     * Everything is aggregated in the database; only the grouped rows come back.
+     */
+    public Map<String, Object> getSummary(LocalDateTime from, LocalDateTime to, int clientLimit) {
+        List<BillingTotal> byStatus = billingRepository.sumByStatus(from, to);
+
+        long count = 0;
+        BigDecimal amount = BigDecimal.ZERO;
+        BigDecimal paid = BigDecimal.ZERO;
+        for (BillingTotal total : byStatus) {
+            count += total.getCount();
+            amount = amount.add(total.getAmount());
+            paid = paid.add(total.getPaid());
+        }
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("count", count);
+        totals.put("amount", amount);
+        totals.put("paid", paid);
+        totals.put("outstanding", amount.subtract(paid));
+
+        List<Map<String, Object>> byMonth = new ArrayList<>();
+        for (BillingMonthTotal month : billingRepository.sumByMonth(from, to)) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("month", String.format("%04d-%02d", month.getYear(), month.getMonth()));
+            row.put("count", month.getCount());
+            row.put("amount", month.getAmount());
+            row.put("paid", month.getPaid());
+            byMonth.add(row);
+        }
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("totals", totals);
+        summary.put("byStatus", byStatus);
+        summary.put("byMonth", byMonth);
+        summary.put("byClient", billingRepository.sumByClient(from, to, PageRequest.of(0, clientLimit)));
+        return summary;
+    }
+}
@@ -0,0 +1,343 @@
+package com.app.service;
+
+import com.app.entity.ContactForm;
+import com.app.repository.ContactFormRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Write-behind ingestion for public contact form submissions.
+ * Visitors are acknowledged as soon as their submission is queued; one background thread
+ * writes the queue to the database in JDBC batches, one transaction per batch. When the
+ * queue is full the submission is saved on the request thread instead, so a spike slows
+ * visitors down rather than losing messages. Rows the database rejects even one at a time
+ * are appended to a spool file and retried on the next start.
+ */
+@Service
+public class ContactFormBatchWriter {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO contact_forms (name, email, phone, subject, service, message, is_read, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    @Value("${app.contact.queue-capacity:5000}")
+    private int queueCapacity;
+
+    @Value("${app.contact.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.contact.linger-ms:50}")
+    private long lingerMillis;
+
+    @Value("${app.contact.spool-file:spool/contact-forms.jsonl}")
+    private String spoolFile;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ContactFormRepository contactFormRepository;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private BlockingQueue<ContactForm> queue;
+    private TransactionTemplate batchTx;
+    private Thread writer;
+    private volatile boolean running;
+
+    private final AtomicLong enqueued = new AtomicLong();
+    private final AtomicLong savedInline = new AtomicLong();
+    private final AtomicInteger highWaterMark = new AtomicInteger();
+
+    // Written only by the flushing thread
+    private final AtomicLong written = new AtomicLong();
+    private final AtomicLong batches = new AtomicLong();
+    private final AtomicLong failedBatches = new AtomicLong();
+    private final AtomicLong spooled = new AtomicLong();
+    private final AtomicLong replayed = new AtomicLong();
+    private final AtomicLong totalFlushNanos = new AtomicLong();
+    private volatile long maxFlushNanos;
+    private volatile long lastFlushNanos;
+    private volatile int lastBatchSize;
+    private volatile long lastLagMillis;
+    private volatile long maxLagMillis;
+
+    @PostConstruct
+    void start() {
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        batchTx = new TransactionTemplate(transactionManager);
+        running = true;
+        writer = new Thread(this::run, "contact-writer");
+        writer.start();
+    }
+
+    /**
+     * Stops accepting queued work, lets the writer finish its batch, then writes whatever is left.
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+        List<ContactForm> rest = new ArrayList<>();
+        queue.drainTo(rest);
+        for (int i = 0; i < rest.size(); i += batchSize) {
+            flush(rest.subList(i, Math.min(rest.size(), i + batchSize)), true);
+        }
+        System.out.println("📨 Contact writer stopped: " + stats());
+    }
+
+    /**
+     * Accepts a validated submission. Returns true if it was queued, false if the queue was
+     * full (or shutting down) and it was saved synchronously instead.
+     */
+    public boolean submit(ContactForm form) {
+        // Server-side fields are never taken from the request body
+        form.setId(null);
+        form.setRead(false);
+        form.setCreatedAt(LocalDateTime.now());
+
+        if (running && queue.offer(form)) {
+            enqueued.incrementAndGet();
+            highWaterMark.accumulateAndGet(queue.size(), Math::max);
+            return true;
+        }
+        savedInline.incrementAndGet();
+        contactFormRepository.save(form);
+        return false;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        long batchCount = batches.get();
+        stats.put("running", running);
+        stats.put("queueDepth", queue.size());
+        stats.put("queueCapacity", queueCapacity);
+        stats.put("highWaterMark", highWaterMark.get());
+        stats.put("enqueued", enqueued.get());
+        stats.put("savedInline", savedInline.get());
+        stats.put("written", written.get());
+        stats.put("batches", batchCount);
+        stats.put("failedBatches", failedBatches.get());
+        stats.put("spooled", spooled.get());
+        stats.put("replayed", replayed.get());
+        stats.put("lastBatchSize", lastBatchSize);
+        stats.put("lastFlushMillis", toMillis(lastFlushNanos));
+        stats.put("maxFlushMillis", toMillis(maxFlushNanos));
+        stats.put("avgFlushMillis", batchCount > 0 ? toMillis(totalFlushNanos.get() / batchCount) : 0);
+        stats.put("lastLagMillis", lastLagMillis);
+        stats.put("maxLagMillis", maxLagMillis);
+        return stats;
+    }
+
+    private void run() {
+        replaySpool();
+        List<ContactForm> batch = new ArrayList<>(batchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                ContactForm first = queue.poll(500, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                // Give a burst a moment to fill the batch, without holding a lone submission for long
+                long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(lingerMillis);
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remaining = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remaining <= 0) break;
+                    ContactForm next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                    if (next == null) break;
+                    batch.add(next);
+                }
+                flush(batch, true);
+            } catch (InterruptedException e) {
+                flush(batch, true);
+                return;
+            } catch (Exception e) {
+                System.err.println("⚠️ Contact writer error: " + e.getMessage());
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Writes one batch in a single transaction. If that fails, the rows are retried one by one
+     * so a single bad row cannot take the rest down; rows that still fail are spooled.
+     * Replayed rows do not count towards lag, since they were received in an earlier run.
+     */
+    private void flush(List<ContactForm> batch, boolean live) {
+        if (batch.isEmpty()) return;
+        long start = System.nanoTime();
+        List<ContactForm> saved = new ArrayList<>(batch.size());
+        try {
+            insert(batch);
+            saved.addAll(batch);
+        } catch (Exception e) {
+            failedBatches.incrementAndGet();
+            System.err.println("⚠️ Contact batch of " + batch.size() + " failed, retrying row by row: " + e.getMessage());
+            for (ContactForm form : batch) {
+                try {
+                    insert(List.of(form));
+                    saved.add(form);
+                } catch (Exception rowError) {
+                    spool(form, rowError);
+                }
+            }
+        }
+        recordFlush(batch, saved.size(), System.nanoTime() - start, live);
+
+        // JDBC inserts bypass the entity listener, so index here
+        for (ContactForm form : saved) {
+            searchIndexService.index(form);
+        }
+    }
+
+    private void insert(List<ContactForm> forms) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        batchTx.executeWithoutResult(status -> jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_SQL, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        ContactForm form = forms.get(i);
+                        ps.setString(1, form.getName());
+                        ps.setString(2, form.getEmail());
+                        ps.setString(3, form.getPhone());
+                        ps.setString(4, form.getSubject());
+                        ps.setString(5, form.getService());
+                        ps.setString(6, form.getMessage());
+                        ps.setBoolean(7, form.isRead());
+                        ps.setTimestamp(8, Timestamp.valueOf(form.getCreatedAt()));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return forms.size();
+                    }
+                },
+                keys));
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        for (int i = 0; i < forms.size() && i < generated.size(); i++) {
+            Object id = generated.get(i).values().iterator().next();
+            forms.get(i).setId(((Number) id).longValue());
+        }
+    }
+
+    private void recordFlush(List<ContactForm> batch, int savedCount, long nanos, boolean live) {
+        written.addAndGet(savedCount);
+        batches.incrementAndGet();
+        totalFlushNanos.addAndGet(nanos);
+        lastFlushNanos = nanos;
+        maxFlushNanos = Math.max(maxFlushNanos, nanos);
+        lastBatchSize = batch.size();
+        if (!live) return;
+        // Time from the oldest submission being received to its batch being committed
+        long lag = Duration.between(batch.get(0).getCreatedAt(), LocalDateTime.now()).toMillis();
+        lastLagMillis = lag;
+        maxLagMillis = Math.max(maxLagMillis, lag);
+    }
+
+    private synchronized void spool(ContactForm form, Exception error) {
+        spooled.incrementAndGet();
+        Path spool = Paths.get(spoolFile);
+        try {
+            if (spool.getParent() != null) Files.createDirectories(spool.getParent());
+            try (BufferedWriter out = Files.newBufferedWriter(spool, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.write(objectMapper.writeValueAsString(form));
+                out.newLine();
+            }
+            System.err.println("⚠️ Contact submission spooled to " + spool + ": " + error.getMessage());
+        } catch (IOException e) {
+            // Last resort: keep the content in the log so it can be re-entered by hand
+            System.err.println("❌ Could not spool contact submission (" + e.getMessage() + "): " + describe(form));
+        }
+    }
+
+    /**
+     * Re-submits spooled rows from a previous run. The spool is renamed first, so rows that fail
+     * again go to a fresh spool and a crash mid-replay resumes from the renamed file.
+     */
+    private void replaySpool() {
+        Path spool = Paths.get(spoolFile);
+        Path replay = spool.resolveSibling(spool.getFileName() + ".replay");
+        try {
+            if (!Files.exists(replay)) {
+                if (!Files.exists(spool)) return;
+                Files.move(spool, replay, StandardCopyOption.ATOMIC_MOVE);
+            }
+            List<ContactForm> forms = new ArrayList<>();
+            for (String line : Files.readAllLines(replay, StandardCharsets.UTF_8)) {
+                if (line.isBlank()) continue;
+                try {
+                    ContactForm form = objectMapper.readValue(line, ContactForm.class);
+                    form.setId(null);
+                    if (form.getCreatedAt() == null) form.setCreatedAt(LocalDateTime.now());
+                    forms.add(form);
+                } catch (IOException e) {
+                    System.err.println("❌ Unreadable spooled contact submission: " + line);
+                }
+            }
+            for (int i = 0; i < forms.size(); i += batchSize) {
+                flush(forms.subList(i, Math.min(forms.size(), i + batchSize)), false);
+            }
+            Files.delete(replay);
+            replayed.addAndGet(forms.size());
+            System.out.println("📨 Replayed " + forms.size() + " spooled contact submissions");
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not replay contact spool " + replay + ": " + e.getMessage());
+        }
+    }
+
+    private String describe(ContactForm form) {
+        try {
+            return objectMapper.writeValueAsString(form);
+        } catch (IOException e) {
+            return form.getName() + " / " + form.getPhone() + " / " + form.getEmail();
+        }
+    }
+
+    private static long toMillis(long nanos) {
+        return Math.round(nanos / 1_000_000.0);
+    }
+}
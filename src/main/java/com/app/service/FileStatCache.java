@@ -0,0 +1,88 @@
+package com.app.service;
+
+import com.app.dto.FileStat;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches one stat() per upload path. Entries are invalidated by the code paths that
+ * write or delete uploads, and also expire after a short TTL to cover changes made
+ * behind the application's back.
+ */
+@Service
+public class FileStatCache {
+
+    @Value("${app.upload.stat-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${app.upload.stat-cache.ttl-ms:30000}")
+    private long ttlMillis;
+
+    private final ConcurrentHashMap<String, Entry> cache = new ConcurrentHashMap<>();
+
+    public FileStat stat(String webPath) {
+        Entry cached = cache.get(webPath);
+        if (cached != null && !isExpired(cached)) {
+            return cached.stat;
+        }
+        if (cached == null && cache.size() >= maxEntries) {
+            cache.clear(); // crude bound; entries are cheap to rebuild
+        }
+        // Loading inside compute() orders it against invalidate() on the same key, so a stat
+        // taken before an upload or delete can never be stored after that change's invalidation
+        return cache.compute(webPath, (key, current) ->
+                current != null && !isExpired(current) ? current : new Entry(load(key))).stat;
+    }
+
+    public void invalidate(String webPath) {
+        cache.remove(webPath);
+    }
+
+    /**
+     * For bulk changes to the upload tree, such as restoring an archive.
+     */
+    public void invalidateAll() {
+        cache.clear();
+    }
+
+    private boolean isExpired(Entry entry) {
+        return System.nanoTime() - entry.loadedAt > TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+    }
+
+    private FileStat load(String webPath) {
+        String contentType = MediaTypeFactory.getMediaType(webPath)
+                .map(Object::toString)
+                .orElse("application/octet-stream");
+        Path path = Paths.get(webPath.startsWith("/") ? webPath.substring(1) : webPath);
+        try {
+            // A single attribute read instead of separate exists/isReadable/size calls
+            BasicFileAttributes attrs = Files.readAttributes(path, BasicFileAttributes.class);
+            return new FileStat(webPath, attrs.isRegularFile(), attrs.size(), contentType,
+                    attrs.lastModifiedTime().toMillis());
+        } catch (NoSuchFileException e) {
+            return new FileStat(webPath, false, 0, contentType, null);
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not stat " + webPath + ": " + e.getMessage());
+            return new FileStat(webPath, false, 0, contentType, null);
+        }
+    }
+
+    private static final class Entry {
+        final FileStat stat;
+        final long loadedAt = System.nanoTime();
+
+        Entry(FileStat stat) {
+            this.stat = stat;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.app.service;
+
+import com.app.dto.CollectionVersion;
+import com.app.dto.ImageVariants;
+import com.app.dto.StoredUpload;
+import com.app.entity.ImageDerivative;
+import com.app.repository.ImageDerivativeRepository;
+import com.app.util.FaviconGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Generates resized variants and a tiny blurred placeholder for uploaded images
+ * on a background worker pool, so list pages can load a few KB per card.
+ */
+@Service
+public class ImageDerivativeService {
+
+    private static final String DERIVED_DIR = "derived";
+    private static final String DERIVED_WEB_PREFIX = "/uploads/projects/" + DERIVED_DIR + "/";
+    private static final int PLACEHOLDER_WIDTH = 16;
+
+    @Value("${app.upload.dir:uploads/projects}")
+    private String uploadDir;
+
+    @Value("${app.images.variant-widths:320,640,1280}")
+    private int[] variantWidths;
+
+    // A decoded image takes 4 bytes per pixel; 40 MP is about 160 MB of heap per worker
+    @Value("${app.images.max-pixels:40000000}")
+    private long maxPixels;
+
+    @Autowired
+    @Qualifier("imageExecutor")
+    private ThreadPoolTaskExecutor imageExecutor;
+
+    @Autowired
+    private ImageDerivativeRepository imageDerivativeRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProjectService projectService;
+
+    public List<ImageDerivative> getDerivatives(Collection<String> sourcePaths) {
+        return imageDerivativeRepository.findBySourcePathIn(sourcePaths);
+    }
+
+    /**
+     * Variants keyed by source path, in one query. Images without derivatives yet are absent.
+     */
+    public Map<String, ImageVariants> getVariants(Collection<String> sourcePaths) {
+        Map<String, ImageVariants> variants = new HashMap<>();
+        if (sourcePaths.isEmpty()) {
+            return variants;
+        }
+        for (ImageDerivative derivative : imageDerivativeRepository.findBySourcePathIn(sourcePaths)) {
+            variants.put(derivative.getSourcePath(), ImageVariants.from(derivative));
+        }
+        return variants;
+    }
+
+    public CollectionVersion getCollectionVersion() {
+        return imageDerivativeRepository.findCollectionVersion();
+    }
+
+    /**
+     * Queues derivative generation for every image in the batch. Never blocks the caller.
+     */
+    public void submitAll(List<StoredUpload> uploads) {
+        for (StoredUpload upload : uploads) {
+            String contentType = upload.getContentType();
+            if (contentType == null || !contentType.startsWith("image/") || contentType.contains("svg")) {
+                continue;
+            }
+            try {
+                imageExecutor.execute(() -> generate(upload.getPath(), upload.getChecksum()));
+            } catch (TaskRejectedException e) {
+                System.err.println("⚠️ Image worker queue full, skipping derivatives for " + upload.getPath());
+            }
+        }
+    }
+
+    private void generate(String sourcePath, String baseName) {
+        if (imageDerivativeRepository.existsBySourcePath(sourcePath)) {
+            return; // identical bytes were uploaded before
+        }
+        try {
+            Path source = Paths.get(sourcePath.startsWith("/") ? sourcePath.substring(1) : sourcePath);
+            BufferedImage original = readWithinLimit(source, sourcePath);
+            if (original == null) {
+                return;
+            }
+
+            BufferedImage src = FaviconGenerator.toARGB(original);
+            boolean hasAlpha = original.getColorModel().hasAlpha();
+            boolean webpSupported = ImageIO.getImageWritersByFormatName("webp").hasNext();
+
+            Path outDir = Paths.get(uploadDir).resolve(DERIVED_DIR);
+            Files.createDirectories(outDir);
+
+            Map<String, Map<String, String>> variants = new LinkedHashMap<>();
+            for (int width : variantWidths) {
+                if (width >= src.getWidth()) {
+                    continue; // never upscale
+                }
+                int height = Math.max(1, Math.round((float) src.getHeight() * width / src.getWidth()));
+                BufferedImage resized = FaviconGenerator.resizeHighQuality(src, width, height);
+
+                Map<String, String> formats = new LinkedHashMap<>();
+                String format = hasAlpha ? "png" : "jpg";
+                String fileName = baseName + "-w" + width + "." + format;
+                ImageIO.write(hasAlpha ? resized : toRGB(resized), format, outDir.resolve(fileName).toFile());
+                formats.put(format, DERIVED_WEB_PREFIX + fileName);
+
+                if (webpSupported) {
+                    String webpName = baseName + "-w" + width + ".webp";
+                    ImageIO.write(resized, "webp", outDir.resolve(webpName).toFile());
+                    formats.put("webp", DERIVED_WEB_PREFIX + webpName);
+                }
+                variants.put(String.valueOf(width), formats);
+            }
+
+            ImageDerivative derivative = new ImageDerivative();
+            derivative.setSourcePath(sourcePath);
+            derivative.setWidth(src.getWidth());
+            derivative.setHeight(src.getHeight());
+            derivative.setPlaceholder(placeholder(src));
+            derivative.setVariants(objectMapper.writeValueAsString(variants));
+            imageDerivativeRepository.save(derivative);
+            // Public project lists embed the variants of each project's main image
+            projectService.invalidatePublicCache();
+
+            System.out.println("🖼️ Generated " + variants.size() + " variant(s) for " + sourcePath);
+        } catch (DataIntegrityViolationException e) {
+            // Another worker finished the same content first
+        } catch (Exception e) {
+            System.err.println("⚠️ Failed to generate derivatives for " + sourcePath + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Decodes the image only after checking its header dimensions, so a small file that inflates
+     * to a huge bitmap (a decompression bomb) cannot exhaust the heap. Returns null when skipped.
+     */
+    private BufferedImage readWithinLimit(Path source, String sourcePath) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                System.out.println("ℹ️ No ImageIO reader for " + sourcePath + ", skipping derivatives");
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                long pixels = (long) reader.getWidth(0) * reader.getHeight(0);
+                if (pixels > maxPixels) {
+                    System.err.println("⚠️ " + sourcePath + " is " + reader.getWidth(0) + "x" + reader.getHeight(0)
+                            + ", over the " + maxPixels + " pixel limit; skipping derivatives");
+                    return null;
+                }
+                return reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    /**
+     * Low-quality image placeholder: a tiny PNG the browser scales up and blurs with CSS.
+     */
+    private String placeholder(BufferedImage src) throws IOException {
+        int height = Math.max(1, Math.round((float) src.getHeight() * PLACEHOLDER_WIDTH / src.getWidth()));
+        BufferedImage tiny = FaviconGenerator.resizeHighQuality(src, PLACEHOLDER_WIDTH, height);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(tiny, "png", out);
+        return "data:image/png;base64," + Base64.getEncoder().encodeToString(out.toByteArray());
+    }
+
+    private BufferedImage toRGB(BufferedImage argb) {
+        BufferedImage rgb = new BufferedImage(argb.getWidth(), argb.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g2 = rgb.createGraphics();
+        g2.drawImage(argb, 0, 0, Color.WHITE, null);
+        g2.dispose();
+        return rgb;
+    }
+}
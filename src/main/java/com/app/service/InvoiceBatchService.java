@@ -0,0 +1,176 @@
+package com.app.service;
+
+import com.app.entity.Billing;
+import com.app.repository.BillingRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Fetches many invoices in parallel on a bounded pool through InvoicePdfCache and streams
+ * each PDF into a ZIP as soon as it is ready. At most two PDFs per worker are in flight,
+ * so memory is bounded no matter how many invoices match.
+ */
+@Service
+public class InvoiceBatchService {
+
+    @Autowired
+    private BillingRepository billingRepository;
+
+    @Autowired
+    private InvoicePdfCache invoicePdfCache;
+
+    @Autowired
+    @Qualifier("invoiceExecutor")
+    private ThreadPoolTaskExecutor invoiceExecutor;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final AtomicReference<Map<String, Object>> lastBatch = new AtomicReference<>();
+
+    private static final class RenderedInvoice {
+        final Billing billing;
+        final byte[] pdf;
+        final long renderNanos;
+        final Exception error;
+
+        RenderedInvoice(Billing billing, byte[] pdf, long renderNanos, Exception error) {
+            this.billing = billing;
+            this.pdf = pdf;
+            this.renderNanos = renderNanos;
+            this.error = error;
+        }
+    }
+
+    public List<Billing> findInvoices(Collection<String> statuses, LocalDateTime from, LocalDateTime to) {
+        return billingRepository.findForInvoiceBatch(statuses, from, to);
+    }
+
+    public Map<String, Object> getLastBatchMetrics() {
+        return lastBatch.get();
+    }
+
+    /**
+     * Writes one PDF per billing into a ZIP, plus a batch-summary.json entry with throughput metrics.
+     */
+    public Map<String, Object> writeInvoicesZip(List<Billing> billings, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        ZipOutputStream zip = new ZipOutputStream(out);
+        // iText already compresses PDF streams
+        zip.setLevel(Deflater.NO_COMPRESSION);
+
+        ExecutorCompletionService<RenderedInvoice> completion = new ExecutorCompletionService<>(invoiceExecutor);
+        int maxInFlight = Math.max(1, invoiceExecutor.getMaxPoolSize() * 2);
+        Iterator<Billing> pending = billings.iterator();
+        int inFlight = 0;
+
+        Set<String> usedNames = new HashSet<>();
+        int rendered = 0;
+        int failed = 0;
+        long totalBytes = 0;
+        long totalRenderNanos = 0;
+
+        try {
+            while (pending.hasNext() || inFlight > 0) {
+                while (pending.hasNext() && inFlight < maxInFlight) {
+                    Billing billing = pending.next();
+                    completion.submit(() -> render(billing));
+                    inFlight++;
+                }
+
+                RenderedInvoice result = completion.take().get();
+                inFlight--;
+
+                if (result.error != null) {
+                    failed++;
+                    System.err.println("⚠️ Invoice " + result.billing.getId() + " failed to render: " + result.error.getMessage());
+                    continue;
+                }
+
+                zip.putNextEntry(new ZipEntry(entryName(result.billing, usedNames)));
+                zip.write(result.pdf);
+                zip.closeEntry();
+
+                rendered++;
+                totalBytes += result.pdf.length;
+                totalRenderNanos += result.renderNanos;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Invoice batch interrupted");
+        } catch (ExecutionException e) {
+            throw new IOException("Invoice batch failed", e.getCause());
+        }
+
+        double elapsedMillis = (System.nanoTime() - start) / 1_000_000.0;
+        Map<String, Object> metrics = new LinkedHashMap<>();
+        metrics.put("requested", billings.size());
+        metrics.put("rendered", rendered);
+        metrics.put("failed", failed);
+        metrics.put("workers", invoiceExecutor.getMaxPoolSize());
+        metrics.put("totalBytes", totalBytes);
+        metrics.put("elapsedMillis", Math.round(elapsedMillis));
+        metrics.put("avgRenderMillis", rendered > 0 ? Math.round(totalRenderNanos / 1_000_000.0 / rendered) : 0);
+        metrics.put("invoicesPerSecond", elapsedMillis > 0 ? Math.round(rendered * 1000.0 / elapsedMillis * 10) / 10.0 : 0);
+        metrics.put("completedAt", LocalDateTime.now().toString());
+
+        zip.setLevel(Deflater.DEFAULT_COMPRESSION);
+        zip.putNextEntry(new ZipEntry("batch-summary.json"));
+        zip.write(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsBytes(metrics));
+        zip.closeEntry();
+        zip.finish();
+        zip.flush();
+
+        lastBatch.set(metrics);
+        return metrics;
+    }
+
+    private RenderedInvoice render(Billing billing) {
+        long start = System.nanoTime();
+        try {
+            byte[] pdf;
+            // Unchanged invoices come straight from the cache; the rest are rendered once and kept there
+            try (FileChannel channel = invoicePdfCache.open(billing)) {
+                pdf = Channels.newInputStream(channel).readAllBytes();
+            }
+            return new RenderedInvoice(billing, pdf, System.nanoTime() - start, null);
+        } catch (Exception e) {
+            return new RenderedInvoice(billing, null, System.nanoTime() - start, e);
+        }
+    }
+
+    private String entryName(Billing billing, Set<String> usedNames) {
+        String base = billing.getInvoiceNumber() != null && !billing.getInvoiceNumber().isBlank()
+                ? billing.getInvoiceNumber().replaceAll("[^a-zA-Z0-9._-]", "_")
+                : "invoice-" + billing.getId();
+        String name = base + ".pdf";
+        if (!usedNames.add(name)) {
+            name = base + "-" + billing.getId() + ".pdf";
+            usedNames.add(name);
+        }
+        return name;
+    }
+}
@@ -0,0 +1,264 @@
+package com.app.service;
+
+import com.app.entity.Billing;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+/**
+ * On-disk cache of rendered invoice PDFs.
+ * Entries are named {@code <billingId>-<updatedAt>.pdf}, so any update to a billing
+ * produces a new key and the old version is dropped. Total size is capped with LRU eviction.
+ */
+@Service
+public class InvoicePdfCache {
+
+    @Value("${app.invoices.cache.dir:cache/invoices}")
+    private String cacheDir;
+
+    @Value("${app.invoices.cache.max-bytes:268435456}")
+    private long maxBytes;
+
+    @Autowired
+    private InvoicePdfService invoicePdfService;
+
+    private Path root;
+
+    // Key -> size in bytes, in access order; guarded by its own monitor
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long totalBytes;
+
+    private final Map<String, CompletableFuture<Path>> rendering = new ConcurrentHashMap<>();
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    @PostConstruct
+    void init() throws IOException {
+        root = Paths.get(cacheDir).toAbsolutePath().normalize();
+        Files.createDirectories(root);
+
+        // Re-adopt entries from a previous run, oldest first so they are evicted first
+        List<Path> existing = new ArrayList<>();
+        try (Stream<Path> files = Files.list(root)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                if (name.startsWith(".render-")) {
+                    try {
+                        Files.deleteIfExists(file);
+                    } catch (IOException ignored) {
+                    }
+                } else if (name.endsWith(".pdf")) {
+                    existing.add(file);
+                }
+            });
+        }
+        existing.sort(Comparator.comparingLong(this::lastModified));
+        synchronized (entries) {
+            for (Path file : existing) {
+                String name = file.getFileName().toString();
+                long size = size(file);
+                entries.put(name.substring(0, name.length() - ".pdf".length()), size);
+                totalBytes += size;
+            }
+            evictUnlocked(null);
+        }
+        System.out.println("🧾 Invoice PDF cache: " + entries.size() + " entries, " + totalBytes + " bytes in " + root);
+    }
+
+    /**
+     * Returns the cached PDF for the billing's current version, rendering it once if needed.
+     * Concurrent callers for the same uncached version share a single render.
+     */
+    public Path get(Billing billing) throws IOException {
+        String key = key(billing);
+        synchronized (entries) {
+            if (entries.get(key) != null) {
+                Path file = root.resolve(key + ".pdf");
+                if (Files.exists(file)) {
+                    hits.incrementAndGet();
+                    return file;
+                }
+                totalBytes -= entries.remove(key);
+            }
+        }
+
+        CompletableFuture<Path> mine = new CompletableFuture<>();
+        CompletableFuture<Path> shared = rendering.putIfAbsent(key, mine);
+        if (shared != null) {
+            return await(shared);
+        }
+
+        misses.incrementAndGet();
+        try {
+            mine.complete(render(billing, key));
+        } catch (Exception e) {
+            mine.completeExceptionally(e);
+        } finally {
+            rendering.remove(key, mine);
+        }
+        return await(mine);
+    }
+
+    /**
+     * Opens the cached PDF for reading. Retries once if the entry is evicted between lookup and open.
+     */
+    public FileChannel open(Billing billing) throws IOException {
+        try {
+            return FileChannel.open(get(billing), StandardOpenOption.READ);
+        } catch (NoSuchFileException e) {
+            return FileChannel.open(get(billing), StandardOpenOption.READ);
+        }
+    }
+
+    /**
+     * Drops every cached version of a billing, e.g. after it is deleted.
+     */
+    public void evict(Long billingId) {
+        String prefix = billingId + "-";
+        synchronized (entries) {
+            Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+            while (it.hasNext()) {
+                Map.Entry<String, Long> entry = it.next();
+                if (entry.getKey().startsWith(prefix)) {
+                    it.remove();
+                    removeFile(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        synchronized (entries) {
+            stats.put("entries", entries.size());
+            stats.put("totalBytes", totalBytes);
+        }
+        stats.put("maxBytes", maxBytes);
+        stats.put("hits", hits.get());
+        stats.put("misses", misses.get());
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    private Path render(Billing billing, String key) throws IOException {
+        Path temp = Files.createTempFile(root, ".render-", ".tmp");
+        try {
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                invoicePdfService.writeInvoicePdf(billing, out);
+            }
+            Path target = root.resolve(key + ".pdf");
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+
+            long size = Files.size(target);
+            synchronized (entries) {
+                Long previous = entries.put(key, size);
+                totalBytes += size - (previous != null ? previous : 0);
+                evictUnlocked(key);
+            }
+            return target;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Removes superseded versions of the freshly cached billing, then least recently used
+     * entries until the cache fits its cap. The fresh entry itself is never evicted.
+     */
+    private void evictUnlocked(String freshKey) {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        String stalePrefix = freshKey != null ? freshKey.substring(0, freshKey.indexOf('-') + 1) : null;
+        while (it.hasNext()) {
+            Map.Entry<String, Long> entry = it.next();
+            String key = entry.getKey();
+            if (key.equals(freshKey)) continue;
+            boolean stale = stalePrefix != null && key.startsWith(stalePrefix);
+            if (stale || totalBytes > maxBytes) {
+                it.remove();
+                removeFile(key, entry.getValue());
+            }
+        }
+    }
+
+    private void removeFile(String key, long size) {
+        totalBytes -= size;
+        evictions.incrementAndGet();
+        try {
+            // Readers that already opened the file keep streaming it
+            Files.deleteIfExists(root.resolve(key + ".pdf"));
+        } catch (IOException e) {
+            System.err.println("⚠️ Could not delete cached invoice " + key + ": " + e.getMessage());
+        }
+    }
+
+    private String key(Billing billing) {
+        LocalDateTime version = billing.getUpdatedAt() != null ? billing.getUpdatedAt() : billing.getCreatedAt();
+        long stamp = 0;
+        if (version != null) {
+            // PostgreSQL keeps microseconds, so match that precision for entities not yet reloaded
+            LocalDateTime micros = version.truncatedTo(ChronoUnit.MICROS);
+            stamp = micros.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + micros.getNano() / 1_000;
+        }
+        return billing.getId() + "-" + stamp;
+    }
+
+    private Path await(CompletableFuture<Path> future) throws IOException {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+    }
+
+    private long lastModified(Path file) {
+        try {
+            return Files.readAttributes(file, BasicFileAttributes.class).lastModifiedTime().toMillis();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private long size(Path file) {
+        try {
+            return Files.size(file);
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+}
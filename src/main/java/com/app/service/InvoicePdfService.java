@@ -1,11 +1,17 @@
 package com.app.service;
 
 import com.app.entity.Billing;
+import com.itextpdf.io.font.FontProgram;
+import com.itextpdf.io.font.FontProgramFactory;
+import com.itextpdf.io.font.PdfEncodings;
+import com.itextpdf.io.font.constants.StandardFonts;
 import com.itextpdf.kernel.colors.ColorConstants;
 import com.itextpdf.kernel.colors.DeviceRgb;
+import com.itextpdf.kernel.font.PdfFontFactory;
 import com.itextpdf.kernel.pdf.PdfDocument;
 import com.itextpdf.kernel.pdf.PdfWriter;
 import com.itextpdf.layout.Document;
+import com.itextpdf.layout.Style;
 import com.itextpdf.layout.element.Cell;
 import com.itextpdf.layout.element.Paragraph;
 import com.itextpdf.layout.element.Table;
@@ -14,6 +20,9 @@ import com.itextpdf.layout.properties.UnitValue;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.math.BigDecimal;
 import java.time.format.DateTimeFormatter;
 
@@ -22,39 +31,60 @@ public class InvoicePdfService {
 
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd MMM yyyy");
 
+    // Static layout shared by every invoice. Styles only carry properties, so they are
+    // safe to apply from several render threads; elements and fonts stay per document.
+    private static final DeviceRgb PRIMARY_COLOR = new DeviceRgb(37, 99, 235);
+    private static final DeviceRgb GRAY_COLOR = new DeviceRgb(107, 114, 128);
+    private static final DeviceRgb LIGHT_GRAY = new DeviceRgb(243, 244, 246);
+    private static final DeviceRgb PAID_COLOR = new DeviceRgb(16, 185, 129);
+
+    private static final String COMPANY_NAME = "Jesta Tech Solutions";
+    private static final String COMPANY_ADDRESS = "Anantapur, Andhra Pradesh 515001\nPhone: +91 8520999351\nEmail: jestatechsolutions@gmail.com";
+    private static final String FOOTER_TEXT = "\nThank you for your business!\n\nTerms & Conditions:\nPayment must be completed within the timeline mentioned in this invoice.\nJesta Tech Solutions is not responsible for delays caused by client inputs or third-party services.";
+    private static final String[] ITEM_HEADERS = {"Description", "Quantity", "Rate", "Amount"};
+
+    private static final float[] DETAILS_COLUMNS = {2, 3};
+    private static final float[] ITEMS_COLUMNS = {3, 1, 1, 1};
+
+    private static final Style COMPANY_NAME_STYLE = new Style().setFontSize(24).setBold().setFontColor(PRIMARY_COLOR);
+    private static final Style COMPANY_ADDRESS_STYLE = new Style().setFontSize(10).setFontColor(GRAY_COLOR);
+    private static final Style TITLE_STYLE = new Style().setFontSize(26).setBold()
+            .setTextAlignment(TextAlignment.RIGHT).setMarginTop(20);
+    private static final Style BILL_TO_STYLE = new Style().setFontSize(14).setBold().setMarginTop(30);
+    private static final Style CLIENT_STYLE = new Style().setFontSize(12).setMarginBottom(20);
+    private static final Style ITEM_HEADER_STYLE = new Style().setBackgroundColor(PRIMARY_COLOR).setFontColor(ColorConstants.WHITE);
+    private static final Style PAID_STYLE = new Style().setFontSize(12).setFontColor(PAID_COLOR).setBold().setMarginTop(20);
+    private static final Style FOOTER_STYLE = new Style().setFontSize(10).setFontColor(GRAY_COLOR)
+            .setMarginTop(30).setTextAlignment(TextAlignment.CENTER);
+
+    // Parsed once; each document still needs its own PdfFont wrapper
+    private static final FontProgram BODY_FONT = loadFont(StandardFonts.HELVETICA);
+
     public byte[] generateInvoicePdf(Billing billing) throws Exception {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-        PdfWriter writer = new PdfWriter(baos);
+        ByteArrayOutputStream baos = new ByteArrayOutputStream(16 * 1024);
+        writeInvoicePdf(billing, baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Renders the invoice straight into the given stream. The stream is left open.
+     */
+    public void writeInvoicePdf(Billing billing, OutputStream out) throws IOException {
+        PdfWriter writer = new PdfWriter(out);
+        writer.setCloseStream(false);
         PdfDocument pdf = new PdfDocument(writer);
         Document document = new Document(pdf);
-
-        // Colors
-        DeviceRgb primaryColor = new DeviceRgb(37, 99, 235);
-        DeviceRgb grayColor = new DeviceRgb(107, 114, 128);
-        DeviceRgb lightGray = new DeviceRgb(243, 244, 246);
+        document.setFont(PdfFontFactory.createFont(BODY_FONT, PdfEncodings.WINANSI));
 
         // Header - Company Info
-        Paragraph companyName = new Paragraph("Jesta Tech Solutions")
-                .setFontSize(24)
-                .setBold()
-                .setFontColor(primaryColor);
-        document.add(companyName);
-
-        Paragraph companyAddress = new Paragraph("Anantapur, Andhra Pradesh 515001\nPhone: +91 8520999351\nEmail: jestatechsolutions@gmail.com")
-                .setFontSize(10)
-                .setFontColor(grayColor);
-        document.add(companyAddress);
+        document.add(new Paragraph(COMPANY_NAME).addStyle(COMPANY_NAME_STYLE));
+        document.add(new Paragraph(COMPANY_ADDRESS).addStyle(COMPANY_ADDRESS_STYLE));
 
         // Invoice Title
-        Paragraph invoiceTitle = new Paragraph("INVOICE")
-                .setFontSize(26)
-                .setBold()
-                .setTextAlignment(TextAlignment.RIGHT)
-                .setMarginTop(20);
-        document.add(invoiceTitle);
+        document.add(new Paragraph("INVOICE").addStyle(TITLE_STYLE));
 
         // Invoice Details Table
-        Table invoiceDetailsTable = new Table(UnitValue.createPercentArray(new float[]{2, 3}))
+        Table invoiceDetailsTable = new Table(UnitValue.createPercentArray(DETAILS_COLUMNS))
                 .setWidth(UnitValue.createPercentValue(100))
                 .setMarginTop(20);
 
@@ -73,40 +103,32 @@ public class InvoicePdfService {
         document.add(invoiceDetailsTable);
 
         // Bill To Section
-        Paragraph billToTitle = new Paragraph("Bill To:")
-                .setFontSize(14)
-                .setBold()
-                .setMarginTop(30);
-        document.add(billToTitle);
-
-        Paragraph clientInfo = new Paragraph(billing.getClientName() != null ? billing.getClientName() : "N/A")
-                .setFontSize(12)
-                .setMarginBottom(20);
-        document.add(clientInfo);
+        document.add(new Paragraph("Bill To:").addStyle(BILL_TO_STYLE));
+        document.add(new Paragraph(billing.getClientName() != null ? billing.getClientName() : "N/A").addStyle(CLIENT_STYLE));
 
         // Items Table
-        Table itemsTable = new Table(UnitValue.createPercentArray(new float[]{3, 1, 1, 1}))
+        Table itemsTable = new Table(UnitValue.createPercentArray(ITEMS_COLUMNS))
                 .setWidth(UnitValue.createPercentValue(100))
                 .setMarginTop(20);
 
         // Header Row
-        itemsTable.addCell(createCell("Description", true, true).setBackgroundColor(primaryColor).setFontColor(ColorConstants.WHITE));
-        itemsTable.addCell(createCell("Quantity", true, true).setBackgroundColor(primaryColor).setFontColor(ColorConstants.WHITE));
-        itemsTable.addCell(createCell("Rate", true, true).setBackgroundColor(primaryColor).setFontColor(ColorConstants.WHITE));
-        itemsTable.addCell(createCell("Amount", true, true).setBackgroundColor(primaryColor).setFontColor(ColorConstants.WHITE));
+        for (String header : ITEM_HEADERS) {
+            itemsTable.addCell(createCell(header, true, true).addStyle(ITEM_HEADER_STYLE));
+        }
 
         // Item Row
+        String amount = formatCurrency(billing.getAmount());
         String notes = billing.getNotes() != null && !billing.getNotes().isEmpty() ? billing.getNotes() : "Professional Services";
         itemsTable.addCell(createCell(notes, false, false));
         itemsTable.addCell(createCell("1", false, false).setTextAlignment(TextAlignment.CENTER));
-        itemsTable.addCell(createCell(formatCurrency(billing.getAmount()), false, false).setTextAlignment(TextAlignment.RIGHT));
-        itemsTable.addCell(createCell(formatCurrency(billing.getAmount()), false, false).setTextAlignment(TextAlignment.RIGHT));
+        itemsTable.addCell(createCell(amount, false, false).setTextAlignment(TextAlignment.RIGHT));
+        itemsTable.addCell(createCell(amount, false, false).setTextAlignment(TextAlignment.RIGHT));
 
         // Subtotal Row
         itemsTable.addCell(createCell("", false, false).setBorder(null));
         itemsTable.addCell(createCell("", false, false).setBorder(null));
         itemsTable.addCell(createCell("Subtotal:", true, false).setTextAlignment(TextAlignment.RIGHT).setBorder(null));
-        itemsTable.addCell(createCell(formatCurrency(billing.getAmount()), false, false).setTextAlignment(TextAlignment.RIGHT));
+        itemsTable.addCell(createCell(amount, false, false).setTextAlignment(TextAlignment.RIGHT));
 
         // Tax Row (if applicable)
         BigDecimal tax = BigDecimal.ZERO;
@@ -119,33 +141,30 @@ public class InvoicePdfService {
         itemsTable.addCell(createCell("", false, false).setBorder(null));
         itemsTable.addCell(createCell("", false, false).setBorder(null));
         itemsTable.addCell(createCell("Total:", true, false).setTextAlignment(TextAlignment.RIGHT).setBorder(null).setFontSize(14));
-        itemsTable.addCell(createCell(formatCurrency(billing.getAmount()), true, false)
+        itemsTable.addCell(createCell(amount, true, false)
                 .setTextAlignment(TextAlignment.RIGHT)
-                .setBackgroundColor(lightGray)
+                .setBackgroundColor(LIGHT_GRAY)
                 .setFontSize(14));
 
         document.add(itemsTable);
 
         // Payment Info
         if (billing.getPaidDate() != null) {
-            Paragraph paidInfo = new Paragraph("Payment Received: " + billing.getPaidDate().format(DATE_FORMATTER))
-                    .setFontSize(12)
-                    .setFontColor(new DeviceRgb(16, 185, 129))
-                    .setBold()
-                    .setMarginTop(20);
-            document.add(paidInfo);
+            document.add(new Paragraph("Payment Received: " + billing.getPaidDate().format(DATE_FORMATTER)).addStyle(PAID_STYLE));
         }
 
         // Footer
-        Paragraph footer = new Paragraph("\nThank you for your business!\n\nTerms & Conditions:\nPayment must be completed within the timeline mentioned in this invoice.\nJesta Tech Solutions is not responsible for delays caused by client inputs or third-party services.")
-                .setFontSize(10)
-                .setFontColor(grayColor)
-                .setMarginTop(30)
-                .setTextAlignment(TextAlignment.CENTER);
-        document.add(footer);
+        document.add(new Paragraph(FOOTER_TEXT).addStyle(FOOTER_STYLE));
 
         document.close();
-        return baos.toByteArray();
+    }
+
+    private static FontProgram loadFont(String name) {
+        try {
+            return FontProgramFactory.createFont(name);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
     }
 
     private Cell createCell(String content, boolean bold, boolean isHeader) {
@@ -0,0 +1,228 @@
+package com.app.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Reconciles the uploads directory against the database.
+ * Unreferenced files older than the grace period are first moved to a quarantine
+ * directory, and only deleted once they have sat there unreferenced for another period.
+ */
+@Service
+public class OrphanFileCollector {
+
+    private static final String WEB_PREFIX = "/uploads/projects/";
+    private static final String QUARANTINE_DIR = ".quarantine";
+    private static final int BATCH_SIZE = 500;
+    private static final Pattern HASHED_NAME = Pattern.compile("^([0-9a-f]{64})(-w\\d+)?\\.[A-Za-z0-9]+$");
+
+    @Value("${app.upload.dir:uploads/projects}")
+    private String uploadDir;
+
+    @Value("${app.upload.gc.grace-hours:24}")
+    private long graceHours;
+
+    @Value("${app.upload.gc.quarantine-hours:72}")
+    private long quarantineHours;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ProjectFileService projectFileService;
+
+    @Autowired
+    private FileStatCache fileStatCache;
+
+    @Autowired
+    private PendingUploads pendingUploads;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong filesScanned = new AtomicLong();
+    private final AtomicLong filesQuarantined = new AtomicLong();
+    private final AtomicLong filesRestored = new AtomicLong();
+    private final AtomicLong filesDeleted = new AtomicLong();
+    private final AtomicLong bytesReclaimed = new AtomicLong();
+    private volatile LocalDateTime lastRunAt;
+    private volatile long lastRunMillis;
+
+    @Scheduled(initialDelayString = "${app.upload.gc.initial-delay-ms:600000}",
+               fixedDelayString = "${app.upload.gc.interval-ms:21600000}")
+    public void scheduledRun() {
+        collect();
+    }
+
+    /**
+     * Runs one reconciliation pass. Returns false if a pass is already in progress.
+     */
+    public boolean collect() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        long start = System.currentTimeMillis();
+        try {
+            Path root = Paths.get(uploadDir).toAbsolutePath().normalize();
+            if (!Files.isDirectory(root)) return true;
+            Path quarantine = root.resolve(QUARANTINE_DIR);
+            Files.createDirectories(quarantine);
+
+            Set<String> referenced = loadReferencedPaths();
+            Set<String> referencedHashes = new HashSet<>();
+            for (String path : referenced) {
+                Matcher m = HASHED_NAME.matcher(path.substring(path.lastIndexOf('/') + 1));
+                if (m.matches()) referencedHashes.add(m.group(1));
+            }
+
+            Instant graceCutoff = Instant.now().minus(Duration.ofHours(graceHours));
+            sweepUploads(root, quarantine, referenced, referencedHashes, graceCutoff);
+            sweepQuarantine(root, quarantine, referenced, referencedHashes);
+
+            System.out.println("🧹 Upload GC finished: " + stats());
+        } catch (Exception e) {
+            System.err.println("⚠️ Upload GC failed: " + e.getMessage());
+        } finally {
+            runs.incrementAndGet();
+            lastRunAt = LocalDateTime.now();
+            lastRunMillis = System.currentTimeMillis() - start;
+            running.set(false);
+        }
+        return true;
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("running", running.get());
+        stats.put("runs", runs.get());
+        stats.put("filesScanned", filesScanned.get());
+        stats.put("filesQuarantined", filesQuarantined.get());
+        stats.put("filesRestored", filesRestored.get());
+        stats.put("filesDeleted", filesDeleted.get());
+        stats.put("bytesReclaimed", bytesReclaimed.get());
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunMillis", lastRunMillis);
+        return stats;
+    }
+
+    private Set<String> loadReferencedPaths() {
+        Set<String> referenced = new HashSet<>();
+        jdbcTemplate.query("SELECT path FROM project_files", rs -> {
+            referenced.add(rs.getString(1));
+        });
+        // Legacy columns may still point at files that predate project_files
+        jdbcTemplate.query("SELECT image_url, file_paths FROM projects WHERE image_url IS NOT NULL OR file_paths IS NOT NULL", rs -> {
+            String imageUrl = rs.getString(1);
+            if (imageUrl != null) referenced.add(imageUrl);
+            referenced.addAll(projectFileService.parseFilePaths(rs.getString(2)));
+        });
+        return referenced;
+    }
+
+    private void sweepUploads(Path root, Path quarantine, Set<String> referenced,
+                              Set<String> referencedHashes, Instant graceCutoff) throws IOException {
+        try (Stream<Path> walk = Files.walk(root)) {
+            Iterator<Path> it = walk.filter(p -> !p.startsWith(quarantine)).filter(Files::isRegularFile).iterator();
+            List<Path> batch = new ArrayList<>(BATCH_SIZE);
+            while (it.hasNext()) {
+                batch.add(it.next());
+                if (batch.size() == BATCH_SIZE || !it.hasNext()) {
+                    for (Path file : batch) {
+                        filesScanned.incrementAndGet();
+                        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                        if (attrs.lastModifiedTime().toInstant().isAfter(graceCutoff)) {
+                            continue; // may belong to a project that is still being created
+                        }
+                        String name = file.getFileName().toString();
+                        if (name.startsWith(".upload-")) {
+                            // Temp file left behind by a failed upload request
+                            delete(file, attrs.size());
+                        } else if (!isReferenced(root, file, referenced, referencedHashes)) {
+                            String webPath = WEB_PREFIX + root.relativize(file).toString().replace("\\", "/");
+                            Path target = quarantine.resolve(root.relativize(file));
+                            Files.createDirectories(target.getParent());
+                            Files.move(file, target, StandardCopyOption.REPLACE_EXISTING);
+                            if (pendingUploads.contains(webPath)) {
+                                // Re-uploaded while we were deciding; put it straight back
+                                Files.move(target, file, StandardCopyOption.REPLACE_EXISTING);
+                                continue;
+                            }
+                            // Quarantine age is measured from the move, not from the upload
+                            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+                            fileStatCache.invalidate(webPath);
+                            filesQuarantined.incrementAndGet();
+                        }
+                    }
+                    batch.clear();
+                }
+            }
+        }
+    }
+
+    private void sweepQuarantine(Path root, Path quarantine, Set<String> referenced,
+                                 Set<String> referencedHashes) throws IOException {
+        Instant deleteCutoff = Instant.now().minus(Duration.ofHours(quarantineHours));
+        try (Stream<Path> files = Files.walk(quarantine)) {
+            Iterator<Path> it = files.filter(Files::isRegularFile).iterator();
+            while (it.hasNext()) {
+                Path file = it.next();
+                Path original = root.resolve(quarantine.relativize(file));
+                if (isReferenced(root, original, referenced, referencedHashes)) {
+                    // Referenced again since it was quarantined, e.g. restored from a backup
+                    Files.createDirectories(original.getParent());
+                    Files.move(file, original, StandardCopyOption.REPLACE_EXISTING);
+                    fileStatCache.invalidate(WEB_PREFIX + root.relativize(original).toString().replace("\\", "/"));
+                    filesRestored.incrementAndGet();
+                    continue;
+                }
+                BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+                if (attrs.lastModifiedTime().toInstant().isBefore(deleteCutoff)) {
+                    delete(file, attrs.size());
+                    String webPath = WEB_PREFIX + root.relativize(original).toString().replace("\\", "/");
+                    jdbcTemplate.update("DELETE FROM image_derivatives WHERE source_path = ?", webPath);
+                }
+            }
+        }
+    }
+
+    private boolean isReferenced(Path root, Path file, Set<String> referenced, Set<String> referencedHashes) {
+        String webPath = WEB_PREFIX + root.relativize(file).toString().replace("\\", "/");
+        // Uploads whose project has not been saved yet count as referenced
+        if (referenced.contains(webPath) || pendingUploads.contains(webPath)) return true;
+        // Derived variants live as long as their source image does
+        Matcher m = HASHED_NAME.matcher(file.getFileName().toString());
+        return m.matches() && m.group(2) != null && referencedHashes.contains(m.group(1));
+    }
+
+    private void delete(Path file, long size) throws IOException {
+        if (Files.deleteIfExists(file)) {
+            filesDeleted.incrementAndGet();
+            bytesReclaimed.addAndGet(size);
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package com.app.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Marks PENDING invoices past their due date as OVERDUE with a single set-based UPDATE,
+ * then hands the changed ids to the reminder step. Cost is proportional to the rows that
+ * change, thanks to the (status, due_date) index.
+ * The UPDATE commits on its own, so ids whose reminders fail are kept and retried next sweep;
+ * ids whose reminders went out are dropped right away and never sent twice.
+ */
+@Service
+public class OverdueBillingSweeper {
+
+    // updated_at and version are bumped so cached invoice PDFs and API ETags pick up the new status
+    private static final String SWEEP_SQL =
+            "UPDATE billing SET status = 'OVERDUE', updated_at = ?, version = version + 1 " +
+            "WHERE status = 'PENDING' AND due_date < ? RETURNING id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PaymentReminderService paymentReminderService;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicLong runs = new AtomicLong();
+    private final AtomicLong invoicesMarkedOverdue = new AtomicLong();
+    private final AtomicLong reminderFailures = new AtomicLong();
+    private final Set<Long> pendingReminders = ConcurrentHashMap.newKeySet();
+    private volatile String lastReminderError;
+    private volatile LocalDateTime lastRunAt;
+    private volatile int lastRunCount;
+
+    @Scheduled(initialDelayString = "${app.billing.overdue-sweep.initial-delay-ms:60000}",
+               fixedDelayString = "${app.billing.overdue-sweep.interval-ms:3600000}")
+    public void scheduledRun() {
+        sweep();
+    }
+
+    /**
+     * Runs one sweep and returns the ids that became overdue, or null if a sweep is already running.
+     */
+    public List<Long> sweep() {
+        if (!running.compareAndSet(false, true)) {
+            return null;
+        }
+        try {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            List<Long> overdueIds;
+            try {
+                overdueIds = jdbcTemplate.queryForList(SWEEP_SQL, Long.class, now, now);
+            } catch (Exception e) {
+                System.err.println("⚠️ Overdue sweep failed: " + e.getMessage());
+                lastRunCount = 0;
+                return List.of();
+            }
+
+            lastRunCount = overdueIds.size();
+            invoicesMarkedOverdue.addAndGet(overdueIds.size());
+            if (!overdueIds.isEmpty()) {
+                System.out.println("⏰ Marked " + overdueIds.size() + " invoices as OVERDUE");
+            }
+            pendingReminders.addAll(overdueIds);
+            sendPendingReminders();
+            return overdueIds;
+        } finally {
+            runs.incrementAndGet();
+            lastRunAt = LocalDateTime.now();
+            running.set(false);
+        }
+    }
+
+    // The ids are already OVERDUE in the database; each leaves the queue once its reminder is out,
+    // so only the ones that failed are retried next sweep
+    private void sendPendingReminders() {
+        if (pendingReminders.isEmpty()) return;
+        List<Long> ids = new ArrayList<>(pendingReminders);
+        String error = null;
+        try {
+            paymentReminderService.sendReminders(ids, pendingReminders::remove);
+        } catch (Exception e) {
+            error = e.getMessage();
+        }
+        int failed = pendingReminders.size();
+        if (failed == 0) {
+            lastReminderError = null;
+            return;
+        }
+        reminderFailures.incrementAndGet();
+        lastReminderError = error != null ? error : failed + " reminders could not be sent";
+        System.err.println("⚠️ Payment reminders failed for " + failed + " of " + ids.size() + " invoices, will retry: " + lastReminderError);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("running", running.get());
+        stats.put("runs", runs.get());
+        stats.put("invoicesMarkedOverdue", invoicesMarkedOverdue.get());
+        stats.put("remindersSent", paymentReminderService.getRemindersSent());
+        stats.put("lastRunAt", lastRunAt);
+        stats.put("lastRunCount", lastRunCount);
+        stats.put("lastReminderAt", paymentReminderService.getLastSentAt());
+        stats.put("reminderFailures", reminderFailures.get());
+        stats.put("lastReminderError", lastReminderError);
+        stats.put("remindersPending", pendingReminders.size());
+        return stats;
+    }
+}
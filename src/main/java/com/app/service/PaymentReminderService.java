@@ -0,0 +1,81 @@
+package com.app.service;
+
+import com.app.entity.Billing;
+import com.app.repository.BillingRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Sends payment reminders for invoices that just became overdue.
+ * Works through the ids in fixed-size batches, loading each batch with one query.
+ */
+@Service
+public class PaymentReminderService {
+
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd MMM yyyy");
+
+    @Value("${app.billing.reminder.batch-size:100}")
+    private int batchSize;
+
+    @Autowired
+    private BillingRepository billingRepository;
+
+    private final AtomicLong remindersSent = new AtomicLong();
+    private volatile LocalDateTime lastSentAt;
+
+    /**
+     * Reminds each invoice and reports its id to {@code onDone} as soon as it is handled, so a
+     * caller can drop it from its retry queue. Ids whose invoice no longer exists count as handled.
+     * A failing reminder is logged and skipped; its id is not reported and the rest still go out.
+     */
+    public int sendReminders(List<Long> billingIds, Consumer<Long> onDone) {
+        int sent = 0;
+        for (int from = 0; from < billingIds.size(); from += batchSize) {
+            List<Long> batch = billingIds.subList(from, Math.min(from + batchSize, billingIds.size()));
+            Set<Long> missing = new HashSet<>(batch);
+            for (Billing billing : billingRepository.findAllById(batch)) {
+                missing.remove(billing.getId());
+                try {
+                    remind(billing);
+                } catch (RuntimeException e) {
+                    System.err.println("⚠️ Payment reminder failed for invoice #" + billing.getId() + ": " + e.getMessage());
+                    continue;
+                }
+                onDone.accept(billing.getId());
+                sent++;
+            }
+            missing.forEach(onDone);
+        }
+        if (sent > 0) {
+            remindersSent.addAndGet(sent);
+            lastSentAt = LocalDateTime.now();
+        }
+        return sent;
+    }
+
+    public long getRemindersSent() {
+        return remindersSent.get();
+    }
+
+    public LocalDateTime getLastSentAt() {
+        return lastSentAt;
+    }
+
+    // No outbound mail is configured yet, so the reminder is recorded in the log
+    private void remind(Billing billing) {
+        System.out.println("📨 Payment reminder: invoice "
+                + (billing.getInvoiceNumber() != null ? billing.getInvoiceNumber() : "#" + billing.getId())
+                + " for " + billing.getClientName()
+                + " (" + billing.getAmount() + ") was due "
+                + (billing.getDueDate() != null ? billing.getDueDate().format(DATE_FORMATTER) : "N/A"));
+    }
+}
@@ -0,0 +1,61 @@
+package com.app.service;
+
+import com.app.dto.StoredUpload;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Uploads that have been stored but may not be attached to a project yet.
+ * The admin UI uploads files first and saves the project afterwards, sending only the paths;
+ * this keeps the upload metadata (original name, size, checksum) around until then.
+ * Entries expire after the orphan collector's grace period.
+ */
+@Service
+public class PendingUploads {
+
+    @Value("${app.upload.gc.grace-hours:24}")
+    private long graceHours;
+
+    private final Map<String, Entry> uploads = new ConcurrentHashMap<>();
+
+    public void add(StoredUpload upload) {
+        uploads.put(upload.getPath(), new Entry(upload, Instant.now()));
+        purgeExpired();
+    }
+
+    public Optional<StoredUpload> find(String path) {
+        Entry entry = uploads.get(path);
+        if (entry == null || isExpired(entry)) {
+            return Optional.empty();
+        }
+        return Optional.of(entry.upload);
+    }
+
+    public boolean contains(String path) {
+        return find(path).isPresent();
+    }
+
+    private void purgeExpired() {
+        uploads.values().removeIf(this::isExpired);
+    }
+
+    private boolean isExpired(Entry entry) {
+        return entry.storedAt.isBefore(Instant.now().minus(Duration.ofHours(graceHours)));
+    }
+
+    private static final class Entry {
+        final StoredUpload upload;
+        final Instant storedAt;
+
+        Entry(StoredUpload upload, Instant storedAt) {
+            this.upload = upload;
+            this.storedAt = storedAt;
+        }
+    }
+}
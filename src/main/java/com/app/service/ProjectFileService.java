@@ -0,0 +1,277 @@
+package com.app.service;
+
+import com.app.dto.StoredUpload;
+import com.app.entity.Project;
+import com.app.entity.ProjectFile;
+import com.app.repository.ProjectFileRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.zip.Deflater;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+@Service
+@Transactional
+public class ProjectFileService {
+
+    // Formats that are already compressed; deflating them again only burns CPU
+    private static final Set<String> COMPRESSED_EXTENSIONS = Set.of(
+            "webp", "png", "jpg", "jpeg", "gif", "pdf", "mp4", "mov", "webm", "mp3", "zip", "gz", "rar", "7z",
+            "docx", "xlsx", "pptx");
+
+    @Autowired
+    private ProjectFileRepository projectFileRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PendingUploads pendingUploads;
+
+    @Value("${app.upload.base-path:uploads}")
+    private String uploadBasePath;
+
+    @Transactional(readOnly = true)
+    public List<ProjectFile> getFiles(Long projectId) {
+        return projectFileRepository.findByProjectIdOrderByIdAsc(projectId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ProjectFile> getFiles(Collection<Long> projectIds) {
+        return projectFileRepository.findByProjectIdInOrderByProjectIdAscIdAsc(projectIds);
+    }
+
+    @Transactional(readOnly = true)
+    public List<String> getFilePaths(Long projectId) {
+        return projectFileRepository.findPathsByProjectId(projectId);
+    }
+
+    /**
+     * Number of project_files rows sharing a stored file. Uploads are content-addressed,
+     * so several projects can point at the same bytes on disk.
+     */
+    @Transactional(readOnly = true)
+    public long countReferences(String path) {
+        return projectFileRepository.countByPath(path);
+    }
+
+    public ProjectFile addFile(ProjectFile file) {
+        if (projectFileRepository.existsByProjectIdAndPath(file.getProjectId(), file.getPath())) {
+            return file;
+        }
+        return projectFileRepository.save(file);
+    }
+
+    /**
+     * Removes a single file row. Returns false if the project does not reference the path.
+     */
+    public boolean removeFile(Long projectId, String path) {
+        return projectFileRepository.deleteByProjectIdAndPath(projectId, path) > 0;
+    }
+
+    public void removeAllFiles(Long projectId) {
+        projectFileRepository.deleteByProjectId(projectId);
+    }
+
+    /**
+     * Brings the project_files rows in line with the legacy filePaths JSON sent by the admin UI.
+     * Only paths that were added or removed are touched. New paths take their metadata from the
+     * upload that stored them, so the original file name survives content addressing.
+     */
+    public void syncFromFilePaths(Project project) {
+        Set<String> wanted = new LinkedHashSet<>(parseFilePaths(project.getFilePaths()));
+        String invalid = findInvalidPath(wanted);
+        if (invalid != null) {
+            throw new IllegalArgumentException("File path is outside the upload directory: " + invalid);
+        }
+        Set<String> existing = new HashSet<>(projectFileRepository.findPathsByProjectId(project.getId()));
+
+        for (String path : existing) {
+            if (!wanted.contains(path)) {
+                projectFileRepository.deleteByProjectIdAndPath(project.getId(), path);
+            }
+        }
+        for (String path : wanted) {
+            if (!existing.contains(path)) {
+                projectFileRepository.save(pendingUploads.find(path)
+                        .map(upload -> fromUpload(project.getId(), upload))
+                        .orElseGet(() -> describeFromDisk(project.getId(), path)));
+            }
+        }
+    }
+
+    /**
+     * Streams the given files into a ZIP on the output stream, one file at a time.
+     * Already-compressed formats are written without compression. Missing files, and paths that
+     * do not resolve inside the upload directory, are skipped.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int writeZip(List<ProjectFile> files, OutputStream out) throws IOException {
+        ZipOutputStream zip = new ZipOutputStream(out);
+        Set<String> usedNames = new HashSet<>();
+        int written = 0;
+
+        for (ProjectFile file : files) {
+            Path diskPath = resolveUpload(file.getPath());
+            if (diskPath == null || !Files.isRegularFile(diskPath)) {
+                System.err.println("⚠️ Skipping missing file in ZIP: " + file.getPath());
+                continue;
+            }
+
+            String name = uniqueEntryName(file.getOriginalName() != null ? file.getOriginalName() : diskPath.getFileName().toString(), usedNames);
+            String extension = name.contains(".") ? name.substring(name.lastIndexOf('.') + 1).toLowerCase(Locale.ROOT) : "";
+            zip.setLevel(COMPRESSED_EXTENSIONS.contains(extension) ? Deflater.NO_COMPRESSION : Deflater.DEFAULT_COMPRESSION);
+
+            ZipEntry entry = new ZipEntry(name);
+            entry.setTime(Files.getLastModifiedTime(diskPath).toMillis());
+            zip.putNextEntry(entry);
+            Files.copy(diskPath, zip);
+            zip.closeEntry();
+            written++;
+        }
+
+        zip.finish();
+        zip.flush();
+        return written;
+    }
+
+    private String uniqueEntryName(String originalName, Set<String> usedNames) {
+        String clean = originalName.replaceAll("[\\\\/:*?\"<>|]", "_");
+        String name = clean;
+        int counter = 2;
+        while (!usedNames.add(name.toLowerCase(Locale.ROOT))) {
+            int dot = clean.lastIndexOf('.');
+            name = dot > 0
+                    ? clean.substring(0, dot) + " (" + counter + ")" + clean.substring(dot)
+                    : clean + " (" + counter + ")";
+            counter++;
+        }
+        return name;
+    }
+
+    public String toFilePathsJson(List<String> paths) {
+        if (paths == null || paths.isEmpty()) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(paths);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize file paths", e);
+        }
+    }
+
+    public List<String> parseFilePaths(String filePathsJson) {
+        if (filePathsJson == null || filePathsJson.isBlank()) {
+            return new ArrayList<>();
+        }
+        try {
+            return new ArrayList<>(Arrays.asList(objectMapper.readValue(filePathsJson, String[].class)));
+        } catch (JsonProcessingException e) {
+            System.err.println("⚠️ Ignoring malformed filePaths JSON: " + e.getMessage());
+            return new ArrayList<>();
+        }
+    }
+
+    /**
+     * Maps a web path such as /uploads/projects/brochure.pdf onto the configured upload directory.
+     * Returns null for paths that are not under /uploads/ or that would resolve outside it.
+     */
+    public Path resolveUpload(String webPath) {
+        if (webPath == null) {
+            return null;
+        }
+        String relative = webPath.startsWith("/") ? webPath.substring(1) : webPath;
+        if (!relative.startsWith("uploads/")) {
+            return null;
+        }
+        Path base = Paths.get(uploadBasePath).toAbsolutePath().normalize();
+        Path file = base.resolve(relative.substring("uploads/".length())).normalize();
+        return file.startsWith(base) && !file.equals(base) ? file : null;
+    }
+
+    /**
+     * First path that does not resolve inside the upload directory, or null when all of them do.
+     */
+    public String findInvalidPath(Collection<String> paths) {
+        for (String path : paths) {
+            if (resolveUpload(path) == null) {
+                return path;
+            }
+        }
+        return null;
+    }
+
+    public ProjectFile fromUpload(Long projectId, StoredUpload upload) {
+        ProjectFile file = new ProjectFile();
+        file.setProjectId(projectId);
+        file.setPath(upload.getPath());
+        file.setOriginalName(upload.getOriginalName());
+        file.setSize(upload.getSize());
+        file.setContentType(upload.getContentType());
+        file.setChecksum(upload.getChecksum());
+        return file;
+    }
+
+    /**
+     * Builds file metadata for an already stored upload by looking at the file on disk.
+     * Missing files still get a row so the reference is not lost.
+     */
+    public ProjectFile describeFromDisk(Long projectId, String webPath) {
+        ProjectFile file = new ProjectFile();
+        file.setProjectId(projectId);
+        file.setPath(webPath);
+        file.setOriginalName(webPath.substring(webPath.lastIndexOf('/') + 1));
+
+        Path diskPath = resolveUpload(webPath);
+        if (diskPath != null && Files.isRegularFile(diskPath)) {
+            try {
+                file.setSize(Files.size(diskPath));
+                file.setContentType(Files.probeContentType(diskPath));
+                file.setChecksum(sha256(diskPath));
+            } catch (IOException e) {
+                System.err.println("⚠️ Could not read file metadata for " + webPath + ": " + e.getMessage());
+            }
+        }
+        return file;
+    }
+
+    private String sha256(Path path) throws IOException {
+        try (InputStream in = Files.newInputStream(path)) {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -1,12 +1,36 @@
 package com.app.service;
 
+import com.app.dto.CollectionVersion;
+import com.app.dto.ImageVariants;
+import com.app.dto.ProjectSummary;
+import com.app.dto.PublicProject;
+import com.app.dto.StoredUpload;
+import com.app.entity.ImageDerivative;
 import com.app.entity.Project;
+import com.app.repository.ImageDerivativeRepository;
 import com.app.repository.ProjectRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 @Service
 public class ProjectService {
@@ -14,10 +38,53 @@ public class ProjectService {
     @Autowired
     private ProjectRepository projectRepository;
 
+    @Autowired
+    private ProjectFileService projectFileService;
+
+    @Autowired
+    private ImageDerivativeRepository imageDerivativeRepository;
+
+    @Value("${app.projects.latest.max-size:50}")
+    private int maxLatestSize;
+
+    // Backstop for writes that bypass this service (SQL console, another instance)
+    @Value("${app.projects.public-cache.ttl-seconds:300}")
+    private long publicCacheTtlSeconds;
+
+    // Public project lists, keyed by "all" or "latest:<n>". The key space is bounded by maxLatestSize.
+    // Each entry is a future so concurrent misses wait on a single DB query.
+    private final ConcurrentHashMap<String, CacheEntry> publicCache = new ConcurrentHashMap<>();
+    private final AtomicLong cacheGeneration = new AtomicLong();
+
+    private static final class CacheEntry {
+        final CompletableFuture<List<PublicProject>> future = new CompletableFuture<>();
+        final long createdAt = System.nanoTime();
+    }
+
     public List<Project> getAllProjects() {
         return projectRepository.findAll();
     }
 
+    public Optional<Long> getVersion(Long id) {
+        return projectRepository.findVersionById(id);
+    }
+
+    public CollectionVersion getCollectionVersion() {
+        return projectRepository.findCollectionVersion();
+    }
+
+    /**
+     * Keyset page of project summaries ordered by (createdAt, id) descending.
+     * Pass null for afterCreatedAt/afterId to fetch the first page.
+     */
+    public List<ProjectSummary> getProjectSummaries(LocalDateTime afterCreatedAt, Long afterId, int size) {
+        PageRequest limit = PageRequest.of(0, size);
+        if (afterCreatedAt == null || afterId == null) {
+            return projectRepository.findSummaryPage(limit);
+        }
+        return projectRepository.findSummaryPageBefore(afterCreatedAt, afterId, limit);
+    }
+
     public Optional<Project> getProjectById(Long id) {
         return projectRepository.findById(id);
     }
@@ -26,20 +93,164 @@ public class ProjectService {
         return projectRepository.findLatestProjects();
     }
 
+    public List<PublicProject> getPublicProjects() {
+        return cached("all", () -> projectRepository.findLatestProjects());
+    }
+
+    public List<PublicProject> getLatestPublicProjects(int limit) {
+        int size = Math.max(1, Math.min(limit, maxLatestSize));
+        return cached("latest:" + size, () -> projectRepository.findLatestProjects(PageRequest.of(0, size)));
+    }
+
     public List<Project> getProjectsByStatus(String status) {
         return projectRepository.findByStatus(status);
     }
 
+    /**
+     * Saves the project and its project_files rows together; a rejected file path leaves neither written.
+     */
+    @Transactional
     public Project createProject(Project project) {
-        return projectRepository.save(project);
+        Project saved = projectRepository.saveAndFlush(project);
+        projectFileService.syncFromFilePaths(saved);
+        afterCommit(this::invalidatePublicCache);
+        return saved;
+    }
+
+    /**
+     * Saves the project, and with syncFiles also brings project_files in line with its filePaths,
+     * in the same transaction.
+     */
+    @Transactional
+    public Project updateProject(Project project, boolean syncFiles) {
+        Project saved = projectRepository.saveAndFlush(project);
+        if (syncFiles) {
+            projectFileService.syncFromFilePaths(saved);
+        }
+        afterCommit(this::invalidatePublicCache);
+        return saved;
     }
 
-    public Project updateProject(Project project) {
-        return projectRepository.save(project);
+    /**
+     * Records uploads against an existing project in project_files and appends them to the
+     * legacy filePaths JSON, so both stay in step for clients still reading the column.
+     * Returns false when the project does not exist.
+     */
+    @Transactional
+    public boolean attachUploads(Long projectId, List<StoredUpload> uploads) {
+        Optional<Project> found = projectRepository.findById(projectId);
+        if (found.isEmpty()) {
+            return false;
+        }
+        Project project = found.get();
+        LinkedHashSet<String> paths = new LinkedHashSet<>(projectFileService.parseFilePaths(project.getFilePaths()));
+        for (StoredUpload upload : uploads) {
+            projectFileService.addFile(projectFileService.fromUpload(projectId, upload));
+            paths.add(upload.getPath());
+        }
+        project.setFilePaths(projectFileService.toFilePathsJson(List.copyOf(paths)));
+        projectRepository.save(project);
+        afterCommit(this::invalidatePublicCache);
+        return true;
     }
 
+    /**
+     * Removes one file from the project: its project_files row, its entry in filePaths and, if it was
+     * the main image, the imageUrl. Returns null when the project does not reference the path.
+     */
+    @Transactional
+    public Project detachFile(Project project, String filePath) {
+        if (!projectFileService.removeFile(project.getId(), filePath)) {
+            return null;
+        }
+        List<String> remaining = projectFileService.getFilePaths(project.getId());
+        project.setFilePaths(projectFileService.toFilePathsJson(remaining));
+        if (filePath.equals(project.getImageUrl())) {
+            project.setImageUrl(remaining.isEmpty() ? null : remaining.get(0));
+        }
+        Project saved = projectRepository.saveAndFlush(project);
+        afterCommit(this::invalidatePublicCache);
+        return saved;
+    }
+
+    @Transactional
     public void deleteProject(Long id) {
+        projectFileService.removeAllFiles(id);
         projectRepository.deleteById(id);
+        afterCommit(this::invalidatePublicCache);
+    }
+
+    public void invalidatePublicCache() {
+        cacheGeneration.incrementAndGet();
+        publicCache.clear();
+    }
+
+    private List<PublicProject> cached(String key, Supplier<List<Project>> loader) {
+        CacheEntry entry = publicCache.get(key);
+        if (entry != null && isExpired(entry)) {
+            publicCache.remove(key, entry);
+            entry = null;
+        }
+        if (entry == null) {
+            CacheEntry created = new CacheEntry();
+            entry = publicCache.putIfAbsent(key, created);
+            if (entry == null) {
+                // This thread won the race and runs the one query for the key
+                entry = created;
+                long generation = cacheGeneration.get();
+                try {
+                    created.future.complete(toPublic(loader.get()));
+                } catch (RuntimeException e) {
+                    publicCache.remove(key, created);
+                    created.future.completeExceptionally(e);
+                }
+                // A write landed while loading; serve this result to waiters but don't keep it
+                if (generation != cacheGeneration.get()) {
+                    publicCache.remove(key, created);
+                }
+            }
+        }
+        try {
+            return entry.future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() instanceof RuntimeException ? (RuntimeException) e.getCause() : e;
+        }
+    }
+
+    // One lookup for the main images of the whole list
+    private List<PublicProject> toPublic(List<Project> projects) {
+        Set<String> imageUrls = new HashSet<>();
+        for (Project project : projects) {
+            if (project.getImageUrl() != null) imageUrls.add(project.getImageUrl());
+        }
+        Map<String, ImageVariants> images = new HashMap<>();
+        if (!imageUrls.isEmpty()) {
+            for (ImageDerivative derivative : imageDerivativeRepository.findBySourcePathIn(imageUrls)) {
+                images.put(derivative.getSourcePath(), ImageVariants.from(derivative));
+            }
+        }
+        return projects.stream()
+                .map(project -> PublicProject.from(project, images.get(project.getImageUrl())))
+                .toList();
+    }
+
+    // Readers must not re-cache the old rows between the invalidation and the commit
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private boolean isExpired(CacheEntry entry) {
+        return entry.future.isDone()
+                && System.nanoTime() - entry.createdAt > TimeUnit.SECONDS.toNanos(publicCacheTtlSeconds);
     }
 }
 
@@ -0,0 +1,233 @@
+package com.app.service;
+
+import com.app.dto.SearchHit;
+import com.app.entity.Billing;
+import com.app.entity.ContactForm;
+import com.app.entity.Project;
+import com.app.entity.Task;
+import com.app.entity.User;
+import com.app.repository.BillingRepository;
+import com.app.repository.ContactFormRepository;
+import com.app.repository.ProjectRepository;
+import com.app.repository.TaskRepository;
+import com.app.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over the admin entities.
+ * Built once at startup and kept current by {@link SearchIndexListener}.
+ * Tokens are kept sorted so prefix queries are a range scan.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final int MIN_TOKEN_LENGTH = 2;
+
+    @Autowired
+    private ProjectRepository projectRepository;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private ContactFormRepository contactFormRepository;
+
+    @Autowired
+    private BillingRepository billingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final NavigableMap<String, Set<String>> postings = new TreeMap<>();
+    private final Map<String, IndexedDoc> documents = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private static final class IndexedDoc {
+        final SearchHit hit;
+        final Set<String> tokens;
+
+        IndexedDoc(SearchHit hit, Set<String> tokens) {
+            this.hit = hit;
+            this.tokens = tokens;
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        int documentCount = 0;
+        int termCount = 0;
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            projectRepository.findAll().forEach(this::indexUnlocked);
+            taskRepository.findAll().forEach(this::indexUnlocked);
+            contactFormRepository.findAll().forEach(this::indexUnlocked);
+            billingRepository.findAll().forEach(this::indexUnlocked);
+            userRepository.findAll().forEach(this::indexUnlocked);
+            documentCount = documents.size();
+            termCount = postings.size();
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not build search index: " + e.getMessage());
+        } finally {
+            lock.writeLock().unlock();
+        }
+        System.out.println("🔎 Search index built: " + documentCount + " documents, "
+                + termCount + " terms in " + (System.currentTimeMillis() - start) + " ms");
+    }
+
+    public void index(Object entity) {
+        lock.writeLock().lock();
+        try {
+            indexUnlocked(entity);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Object entity) {
+        SearchHit hit = toHit(entity);
+        if (hit == null) return;
+        lock.writeLock().lock();
+        try {
+            removeUnlocked(key(hit));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Every query term must match the prefix of some token in the document.
+     */
+    public List<SearchHit> search(String query, int limit) {
+        List<String> terms = tokenize(query);
+        if (terms.isEmpty()) return new ArrayList<>();
+
+        lock.readLock().lock();
+        try {
+            Set<String> matches = null;
+            for (String term : terms) {
+                Set<String> termMatches = new HashSet<>();
+                for (Set<String> docs : postings.subMap(term, true, term + Character.MAX_VALUE, true).values()) {
+                    termMatches.addAll(docs);
+                }
+                if (matches == null) {
+                    matches = termMatches;
+                } else {
+                    matches.retainAll(termMatches);
+                }
+                if (matches.isEmpty()) break;
+            }
+
+            List<SearchHit> hits = new ArrayList<>();
+            for (String key : matches) {
+                hits.add(documents.get(key).hit);
+            }
+            hits.sort(Comparator.comparing(SearchHit::getType).thenComparing(SearchHit::getId, Comparator.reverseOrder()));
+            return hits.size() > limit ? new ArrayList<>(hits.subList(0, limit)) : hits;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void indexUnlocked(Object entity) {
+        SearchHit hit = toHit(entity);
+        if (hit == null || hit.getId() == null) return;
+        String key = key(hit);
+        removeUnlocked(key);
+
+        Set<String> tokens = new HashSet<>();
+        for (String text : searchableText(entity)) {
+            tokens.addAll(tokenize(text));
+        }
+        for (String token : tokens) {
+            postings.computeIfAbsent(token, t -> new HashSet<>()).add(key);
+        }
+        documents.put(key, new IndexedDoc(hit, tokens));
+    }
+
+    private void removeUnlocked(String key) {
+        IndexedDoc old = documents.remove(key);
+        if (old == null) return;
+        for (String token : old.tokens) {
+            Set<String> docs = postings.get(token);
+            if (docs != null) {
+                docs.remove(key);
+                if (docs.isEmpty()) postings.remove(token);
+            }
+        }
+    }
+
+    private String key(SearchHit hit) {
+        return hit.getType() + ":" + hit.getId();
+    }
+
+    private SearchHit toHit(Object entity) {
+        if (entity instanceof Project p) {
+            return new SearchHit("PROJECT", p.getId(), p.getName(), p.getClientName());
+        } else if (entity instanceof Task t) {
+            return new SearchHit("TASK", t.getId(), t.getTitle(), t.getProjectName());
+        } else if (entity instanceof ContactForm c) {
+            return new SearchHit("CONTACT", c.getId(), c.getName(), c.getSubject());
+        } else if (entity instanceof Billing b) {
+            return new SearchHit("BILLING", b.getId(), b.getInvoiceNumber(), b.getClientName());
+        } else if (entity instanceof User u) {
+            return new SearchHit("USER", u.getId(), u.getUsername(), u.getEmail());
+        }
+        return null;
+    }
+
+    private List<String> searchableText(Object entity) {
+        List<String> text = new ArrayList<>();
+        if (entity instanceof Project p) {
+            text.add(p.getName());
+            text.add(p.getClientName());
+            text.add(p.getCategory());
+        } else if (entity instanceof Task t) {
+            text.add(t.getTitle());
+            text.add(t.getTags());
+            text.add(t.getAssignedTo());
+            text.add(t.getProjectName());
+        } else if (entity instanceof ContactForm c) {
+            text.add(c.getName());
+            text.add(c.getEmail());
+            text.add(c.getSubject());
+            text.add(c.getMessage());
+        } else if (entity instanceof Billing b) {
+            text.add(b.getInvoiceNumber());
+            text.add(b.getClientName());
+        } else if (entity instanceof User u) {
+            text.add(u.getUsername());
+            text.add(u.getEmail());
+            text.add(u.getDepartment());
+        }
+        return text;
+    }
+
+    private List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) return tokens;
+        for (String token : text.toLowerCase().split("[^\\p{L}\\p{N}]+")) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+}
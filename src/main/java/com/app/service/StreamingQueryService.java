@@ -0,0 +1,57 @@
+package com.app.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+
+/**
+ * Runs large reads as forward-only cursors, handing rows to a callback one at a time
+ * so exports use the same memory for ten rows or ten million.
+ */
+@Service
+public class StreamingQueryService {
+
+    private static final int FETCH_SIZE = 500;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private JdbcTemplate streamingJdbc;
+    private TransactionTemplate readOnlyTx;
+    private TransactionTemplate snapshotTx;
+
+    @PostConstruct
+    void init() {
+        streamingJdbc = new JdbcTemplate(dataSource);
+        streamingJdbc.setFetchSize(FETCH_SIZE);
+        readOnlyTx = new TransactionTemplate(transactionManager);
+        // PostgreSQL only honours the fetch size (server-side cursor) outside autocommit
+        readOnlyTx.setReadOnly(true);
+        snapshotTx = new TransactionTemplate(transactionManager);
+        snapshotTx.setReadOnly(true);
+        snapshotTx.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+    }
+
+    /**
+     * Runs the action in one read-only REPEATABLE READ transaction. Queries issued inside it
+     * join that transaction, so several tables read one after another see the same snapshot.
+     */
+    public <T> T inSnapshot(TransactionCallback<T> action) {
+        return snapshotTx.execute(action);
+    }
+
+    public void query(String sql, RowCallbackHandler handler, Object... args) {
+        readOnlyTx.executeWithoutResult(status -> streamingJdbc.query(sql, handler, args));
+    }
+}
@@ -0,0 +1,391 @@
+package com.app.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.Date;
+import java.sql.ResultSetMetaData;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Full-system backup archive: one NDJSON file per table plus the upload tree, in a single ZIP.
+ * Both directions stream row by row (JDBC cursor out, fixed-size JDBC batches in),
+ * so heap use does not grow with table size. An import replaces the contents of every table
+ * atomically, so the result matches the archive rather than a merge with what was there.
+ */
+@Service
+public class SystemArchiveService {
+
+    // Parent tables first so foreign keys resolve on import
+    private static final List<String> TABLES = List.of(
+            "users", "settings", "projects", "project_files", "image_derivatives", "tasks", "task_tags",
+            "billing", "contact_forms");
+
+    private static final int BATCH_SIZE = 500;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private StreamingQueryService streamingQueryService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private FileStatCache fileStatCache;
+
+    @Value("${app.upload.base-path:uploads}")
+    private String uploadBasePath;
+
+    private TransactionTemplate writeTx;
+
+    @PostConstruct
+    void init() {
+        writeTx = new TransactionTemplate(transactionManager);
+    }
+
+    public Map<String, Long> export(OutputStream out) throws IOException {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        ZipOutputStream zip = new ZipOutputStream(out);
+
+        // All tables come from one snapshot, so every foreign key in the archive resolves
+        try {
+            streamingQueryService.inSnapshot(status -> {
+                try {
+                    for (String table : TABLES) {
+                        zip.putNextEntry(new ZipEntry("data/" + table + ".ndjson"));
+                        counts.put(table, exportTable(table, zip));
+                        zip.closeEntry();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        counts.put("uploads", exportUploads(zip));
+
+        zip.finish();
+        zip.flush();
+        return counts;
+    }
+
+    private long exportTable(String table, OutputStream out) throws IOException {
+        JsonGenerator gen = objectMapper.getFactory().createGenerator(out);
+        gen.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        gen.setRootValueSeparator(null);
+        long[] rows = {0};
+
+        try {
+            streamingQueryService.query("SELECT * FROM " + table + " ORDER BY id", rs -> {
+                try {
+                    ResultSetMetaData meta = rs.getMetaData();
+                    gen.writeStartObject();
+                    for (int i = 1; i <= meta.getColumnCount(); i++) {
+                        gen.writeFieldName(meta.getColumnLabel(i));
+                        Object value = rs.getObject(i);
+                        if (value == null) {
+                            gen.writeNull();
+                        } else if (value instanceof Timestamp ts) {
+                            gen.writeString(ts.toLocalDateTime().toString());
+                        } else if (value instanceof Date d) {
+                            gen.writeString(d.toLocalDate().toString());
+                        } else if (value instanceof BigDecimal bd) {
+                            gen.writeNumber(bd);
+                        } else if (value instanceof Number n) {
+                            gen.writeNumber(n.toString());
+                        } else if (value instanceof Boolean b) {
+                            gen.writeBoolean(b);
+                        } else {
+                            gen.writeString(value.toString());
+                        }
+                    }
+                    gen.writeEndObject();
+                    gen.writeRaw('\n');
+                    rows[0]++;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        gen.flush();
+        return rows[0];
+    }
+
+    private long exportUploads(ZipOutputStream zip) throws IOException {
+        Path base = Paths.get(uploadBasePath).toAbsolutePath().normalize();
+        if (!Files.isDirectory(base)) return 0;
+
+        long files = 0;
+        try (Stream<Path> walk = Files.walk(base)) {
+            Iterator<Path> it = walk.filter(Files::isRegularFile)
+                    .filter(p -> !p.getFileName().toString().startsWith("."))
+                    .iterator();
+            while (it.hasNext()) {
+                Path file = it.next();
+                String relative = base.relativize(file).toString().replace("\\", "/");
+                zip.putNextEntry(new ZipEntry("uploads/" + relative));
+                Files.copy(file, zip);
+                zip.closeEntry();
+                files++;
+            }
+        }
+        return files;
+    }
+
+    /**
+     * Restores an archive. All tables are emptied and rewritten in one transaction, so a bad row
+     * leaves the database as it was. Upload files are staged beside the upload tree and only moved into place
+     * once the rows have committed. A file that cannot be moved at that point no longer rolls anything back;
+     * it is counted under "uploadsFailed" and the rest are still moved. Afterwards every in-memory view
+     * of the data is rebuilt.
+     */
+    public Map<String, Long> importArchive(InputStream in) throws IOException {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        Path base = Paths.get(uploadBasePath).toAbsolutePath().normalize();
+        Path staging = base.resolve(".import-" + System.currentTimeMillis());
+        List<String> stagedFiles = new ArrayList<>();
+        long failedFiles = 0;
+
+        try {
+            writeTx.executeWithoutResult(status -> {
+                clearTables();
+                try {
+                    readArchive(new ZipInputStream(in), base, staging, counts, stagedFiles);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            for (String relative : stagedFiles) {
+                Path target = base.resolve(relative);
+                try {
+                    Files.createDirectories(target.getParent());
+                    Files.move(staging.resolve(relative), target, StandardCopyOption.REPLACE_EXISTING);
+                } catch (IOException e) {
+                    failedFiles++;
+                    System.err.println("❌ Could not restore upload " + relative + ": " + e.getMessage());
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            deleteTree(staging);
+        }
+        counts.put("uploads", stagedFiles.size() - failedFiles);
+        counts.put("uploadsFailed", failedFiles);
+
+        for (String table : TABLES) {
+            resetIdSequence(table);
+        }
+        refreshDerivedState();
+        return counts;
+    }
+
+    private void readArchive(ZipInputStream zip, Path base, Path staging, Map<String, Long> counts,
+                             List<String> stagedFiles) throws IOException {
+        ZipEntry entry;
+        while ((entry = zip.getNextEntry()) != null) {
+            String name = entry.getName();
+            if (name.startsWith("data/") && name.endsWith(".ndjson")) {
+                String table = name.substring("data/".length(), name.length() - ".ndjson".length());
+                if (TABLES.contains(table)) {
+                    counts.put(table, importTable(table, zip));
+                }
+            } else if (name.startsWith("uploads/") && !entry.isDirectory()) {
+                Path target = base.resolve(name.substring("uploads/".length())).normalize();
+                if (!target.startsWith(base) || target.startsWith(staging)) {
+                    System.err.println("⚠️ Skipping archive entry outside upload directory: " + name);
+                    continue;
+                }
+                String relative = base.relativize(target).toString();
+                Path staged = staging.resolve(relative);
+                Files.createDirectories(staged.getParent());
+                Files.copy(zip, staged, StandardCopyOption.REPLACE_EXISTING);
+                stagedFiles.add(relative);
+            }
+            zip.closeEntry();
+        }
+    }
+
+    // Children first so no foreign key points at a deleted row
+    private void clearTables() {
+        List<String> reversed = new ArrayList<>(TABLES);
+        Collections.reverse(reversed);
+        for (String table : reversed) {
+            int deleted = jdbcTemplate.update("DELETE FROM " + table);
+            System.out.println("🗑️ Cleared " + deleted + " rows from " + table);
+        }
+    }
+
+    /**
+     * The import bypasses the services, so caches and indexes built from the old rows are dropped.
+     */
+    private void refreshDerivedState() {
+        projectService.invalidatePublicCache();
+        fileStatCache.invalidateAll();
+        taskService.refreshStatusCounts();
+        searchIndexService.rebuild();
+    }
+
+    private void deleteTree(Path root) throws IOException {
+        if (!Files.exists(root)) return;
+        try (Stream<Path> walk = Files.walk(root)) {
+            Iterator<Path> it = walk.sorted(Comparator.reverseOrder()).iterator();
+            while (it.hasNext()) {
+                Files.deleteIfExists(it.next());
+            }
+        }
+    }
+
+    private long importTable(String table, InputStream in) throws IOException {
+        Map<String, Integer> columnTypes = columnTypes(table);
+        // The reader must not be closed: it wraps the shared ZipInputStream
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+
+        List<String> columns = null;
+        String sql = null;
+        int[] argTypes = null;
+        List<Object[]> batch = new ArrayList<>(BATCH_SIZE);
+        long rows = 0;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) continue;
+            JsonNode row = objectMapper.readTree(line);
+
+            if (columns == null) {
+                // Only columns that exist in this schema; names never come from the archive alone
+                columns = new ArrayList<>();
+                for (Iterator<String> it = row.fieldNames(); it.hasNext(); ) {
+                    String column = it.next();
+                    if (columnTypes.containsKey(column)) columns.add(column);
+                }
+                sql = insertSql(table, columns);
+                argTypes = columns.stream().mapToInt(columnTypes::get).toArray();
+            }
+
+            Object[] args = new Object[columns.size()];
+            for (int i = 0; i < columns.size(); i++) {
+                args[i] = toJdbcValue(row.get(columns.get(i)), argTypes[i]);
+            }
+            batch.add(args);
+
+            if (batch.size() == BATCH_SIZE) {
+                jdbcTemplate.batchUpdate(sql, batch, argTypes);
+                rows += batch.size();
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            jdbcTemplate.batchUpdate(sql, batch, argTypes);
+            rows += batch.size();
+        }
+        System.out.println("📥 Imported " + rows + " rows into " + table);
+        return rows;
+    }
+
+    private Map<String, Integer> columnTypes(String table) {
+        Map<String, Integer> types = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT * FROM " + table + " WHERE 1 = 0", rs -> {
+            ResultSetMetaData meta = rs.getMetaData();
+            for (int i = 1; i <= meta.getColumnCount(); i++) {
+                types.put(meta.getColumnLabel(i), meta.getColumnType(i));
+            }
+            return null;
+        });
+        return types;
+    }
+
+    private String insertSql(String table, List<String> columns) {
+        return "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", Collections.nCopies(columns.size(), "?")) + ")";
+    }
+
+    private Object toJdbcValue(JsonNode node, int sqlType) {
+        if (node == null || node.isNull()) return null;
+        switch (sqlType) {
+            case Types.TIMESTAMP:
+            case Types.TIMESTAMP_WITH_TIMEZONE:
+                return Timestamp.valueOf(LocalDateTime.parse(node.asText()));
+            case Types.DATE:
+                return Date.valueOf(LocalDate.parse(node.asText()));
+            case Types.BIGINT:
+                return node.asLong();
+            case Types.INTEGER:
+            case Types.SMALLINT:
+                return node.asInt();
+            case Types.DOUBLE:
+            case Types.FLOAT:
+            case Types.REAL:
+                return node.asDouble();
+            case Types.NUMERIC:
+            case Types.DECIMAL:
+                return node.decimalValue();
+            case Types.BOOLEAN:
+            case Types.BIT:
+                return node.asBoolean();
+            default:
+                return node.asText();
+        }
+    }
+
+    private void resetIdSequence(String table) {
+        try {
+            jdbcTemplate.execute("SELECT setval(pg_get_serial_sequence('" + table + "', 'id'), " +
+                    "COALESCE((SELECT MAX(id) FROM " + table + "), 0) + 1, false)");
+        } catch (Exception e) {
+            System.err.println("⚠️ Could not reset id sequence for " + table + ": " + e.getMessage());
+        }
+    }
+}
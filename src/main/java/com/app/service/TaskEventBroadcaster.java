@@ -0,0 +1,198 @@
+package com.app.service;
+
+import com.app.dto.TaskEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fans task change events out to connected admin boards over Server-Sent Events.
+ * Every client has a fixed-size queue drained on a small shared pool, so a slow browser
+ * can neither block the request that made the change nor grow server memory: when its
+ * queue overflows, the backlog is dropped and the client is told to re-fetch instead.
+ */
+@Service
+public class TaskEventBroadcaster {
+
+    private static final String RESYNC = "resync";
+
+    @Value("${app.tasks.events.client-buffer:256}")
+    private int clientBuffer;
+
+    @Value("${app.tasks.events.max-clients:100}")
+    private int maxClients;
+
+    @Value("${app.tasks.events.timeout-ms:1800000}")
+    private long timeoutMillis;
+
+    @Value("${app.tasks.events.replay-size:256}")
+    private int replaySize;
+
+    @Autowired
+    @Qualifier("sseExecutor")
+    private ThreadPoolTaskExecutor sseExecutor;
+
+    private final List<Client> clients = new CopyOnWriteArrayList<>();
+    private final AtomicLong sequence = new AtomicLong();
+    private final Deque<TaskEvent> recent = new ArrayDeque<>();
+
+    private final AtomicLong eventsPublished = new AtomicLong();
+    private final AtomicLong overflows = new AtomicLong();
+
+    private final class Client {
+        final SseEmitter emitter;
+        final BlockingQueue<TaskEvent> queue = new ArrayBlockingQueue<>(clientBuffer);
+        final AtomicBoolean draining = new AtomicBoolean();
+        final AtomicBoolean overflowed = new AtomicBoolean();
+
+        Client(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+    }
+
+    /**
+     * Registers a new subscriber, or returns null when the client limit is reached.
+     * A reconnecting EventSource sends Last-Event-ID; missed events are replayed when still
+     * in the recent window, otherwise the client is asked to resync.
+     */
+    public SseEmitter subscribe(Long lastEventId) {
+        if (clients.size() >= maxClients) {
+            return null;
+        }
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Client client = new Client(emitter);
+        emitter.onCompletion(() -> clients.remove(client));
+        emitter.onTimeout(() -> clients.remove(client));
+        emitter.onError(e -> clients.remove(client));
+
+        // Replay and registration share the publish lock, so no event falls between the two
+        synchronized (recent) {
+            if (lastEventId != null) {
+                TaskEvent oldest = recent.peekFirst();
+                long current = sequence.get();
+                if (lastEventId > current || (lastEventId < current && (oldest == null || oldest.getId() > lastEventId + 1))) {
+                    client.overflowed.set(true); // sent as a resync on first drain
+                } else {
+                    for (TaskEvent event : recent) {
+                        if (event.getId() > lastEventId && !client.queue.offer(event)) {
+                            client.queue.clear();
+                            client.overflowed.set(true);
+                            break;
+                        }
+                    }
+                }
+            }
+            clients.add(client);
+        }
+        drain(client);
+        return emitter;
+    }
+
+    public void publish(String type, Object data) {
+        // Ids are assigned and enqueued under one lock so every client sees them in order;
+        // offers never block, and the actual socket writes happen on the drain pool
+        synchronized (recent) {
+            TaskEvent event = new TaskEvent(sequence.incrementAndGet(), type, data);
+            recent.addLast(event);
+            while (recent.size() > replaySize) {
+                recent.removeFirst();
+            }
+            for (Client client : clients) {
+                if (!client.queue.offer(event)) {
+                    // Too far behind: drop the backlog and let the board re-fetch once
+                    client.queue.clear();
+                    client.overflowed.set(true);
+                    overflows.incrementAndGet();
+                }
+            }
+        }
+        eventsPublished.incrementAndGet();
+        for (Client client : clients) {
+            drain(client);
+        }
+    }
+
+    /**
+     * Keeps idle connections alive through proxies and detects browsers that went away.
+     */
+    @Scheduled(fixedDelayString = "${app.tasks.events.heartbeat-ms:25000}")
+    public void heartbeat() {
+        for (Client client : clients) {
+            client.queue.offer(new TaskEvent(0, null, null));
+            drain(client);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("clients", clients.size());
+        stats.put("lastEventId", sequence.get());
+        stats.put("eventsPublished", eventsPublished.get());
+        stats.put("overflows", overflows.get());
+        return stats;
+    }
+
+    private void drain(Client client) {
+        if (!client.draining.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            sseExecutor.execute(() -> {
+                try {
+                    send(client);
+                } finally {
+                    client.draining.set(false);
+                }
+                // An event may have arrived between the last poll and releasing the flag
+                if (!client.queue.isEmpty() && clients.contains(client)) {
+                    drain(client);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            client.draining.set(false);
+        }
+    }
+
+    private void send(Client client) {
+        try {
+            if (client.overflowed.getAndSet(false)) {
+                client.emitter.send(SseEmitter.event().id(String.valueOf(sequence.get())).name(RESYNC).data(""));
+            }
+            List<TaskEvent> batch = new ArrayList<>();
+            client.queue.drainTo(batch);
+            for (TaskEvent event : batch) {
+                if (event.getType() == null) {
+                    client.emitter.send(SseEmitter.event().comment("ping"));
+                } else {
+                    client.emitter.send(SseEmitter.event()
+                            .id(String.valueOf(event.getId()))
+                            .name(event.getType())
+                            .data(event.getData(), MediaType.APPLICATION_JSON));
+                }
+            }
+        } catch (Exception e) {
+            // Browser disconnected or write failed; it will reconnect with Last-Event-ID
+            clients.remove(client);
+            client.queue.clear();
+            client.emitter.completeWithError(e);
+        }
+    }
+}
@@ -1,19 +1,57 @@
 package com.app.service;
 
+import com.app.dto.CollectionVersion;
+import com.app.dto.TaskFilter;
+import com.app.dto.TaskStatusCount;
 import com.app.entity.Task;
+import com.app.entity.TaskPriority;
 import com.app.repository.TaskRepository;
+import com.app.repository.TaskSpecifications;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
 @Service
 public class TaskService {
 
+    public static final String SORT_CREATED = "created";
+    public static final String SORT_PRIORITY = "priority";
+
+    private static final List<String> BOARD_STATUSES = List.of("TODO", "IN_PROGRESS", "REVIEW", "DONE");
+
     @Autowired
     private TaskRepository taskRepository;
 
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private TaskTagService taskTagService;
+
+    @Autowired
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    // Live task count per status, kept in step with every mutation below
+    private final Map<String, AtomicLong> statusCounts = new ConcurrentHashMap<>();
+
     public List<Task> getAllTasks() {
         return taskRepository.findAllByOrderByCreatedAtDesc();
     }
@@ -22,8 +60,33 @@ public class TaskService {
         return taskRepository.findById(id);
     }
 
+    public Optional<Long> getVersion(Long id) {
+        return taskRepository.findVersionById(id);
+    }
+
+    public CollectionVersion getCollectionVersion() {
+        return taskRepository.findCollectionVersion();
+    }
+
     public List<Task> getTasksByStatus(String status) {
-        return taskRepository.findByStatusOrderByPriorityDesc(status);
+        return taskRepository.findByStatusOrderByPriorityRankDescIdDesc(status);
+    }
+
+    /**
+     * One page of tasks matching the filter, newest first or most urgent first.
+     * Paging is keyset-based: pass the last row's key back in the filter for the next page.
+     */
+    public List<Task> findTasks(TaskFilter filter, String sort, int limit) {
+        Sort order = SORT_PRIORITY.equals(sort)
+                ? Sort.by(Sort.Order.desc("priorityRank"), Sort.Order.desc("id"))
+                : Sort.by(Sort.Order.desc("createdAt"), Sort.Order.desc("id"));
+        return taskRepository.findBy(TaskSpecifications.matching(filter),
+                query -> query.sortBy(order).limit(limit).all());
+    }
+
+    public List<Task> getTasksByTag(String tag) {
+        String normalized = taskTagService.normalize(tag);
+        return normalized != null ? taskRepository.findByTag(normalized) : List.of();
     }
 
     public List<Task> getTasksByPriority(String priority) {
@@ -38,14 +101,34 @@ public class TaskService {
         return taskRepository.findByProjectId(projectId);
     }
 
+    // Single-task writes: the task row and its tag rows commit together, and the counters and
+    // board events only see the change once it has committed
+    @Transactional
     public Task createTask(Task task) {
-        return taskRepository.save(task);
+        Task saved = taskRepository.save(task);
+        taskTagService.syncTags(saved.getId(), saved.getTags());
+        afterCommit(() -> {
+            adjustCount(saved.getStatus(), 1);
+            taskEventBroadcaster.publish("task.created", saved);
+        });
+        return saved;
     }
 
-    public Task updateTask(Long id, Task taskDetails) {
+    /**
+     * Replaces the editable fields of a task. When expectedVersion is given and the task has moved
+     * past it, nothing is written and ObjectOptimisticLockingFailureException is thrown.
+     * A concurrent save of the same task fails the same way, before any tag row is touched.
+     */
+    @Transactional
+    public Task updateTask(Long id, Task taskDetails, Long expectedVersion) {
         Optional<Task> optionalTask = taskRepository.findById(id);
         if (optionalTask.isPresent()) {
             Task task = optionalTask.get();
+            if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Task.class, id);
+            }
+            String previousStatus = task.getStatus();
+            Map<String, Object> before = boardFields(task);
             task.setTitle(taskDetails.getTitle());
             task.setDescription(taskDetails.getDescription());
             task.setStatus(taskDetails.getStatus());
@@ -55,31 +138,200 @@ public class TaskService {
             task.setProjectName(taskDetails.getProjectName());
             task.setDueDate(taskDetails.getDueDate());
             task.setTags(taskDetails.getTags());
-            return taskRepository.save(task);
+            // Flush first so the version check serializes concurrent edits ahead of the tag diff
+            Task saved = taskRepository.saveAndFlush(task);
+            taskTagService.syncTags(saved.getId(), saved.getTags());
+            afterCommit(() -> {
+                moveCount(previousStatus, saved.getStatus());
+                publishChanges(saved, before);
+            });
+            return saved;
         }
         return null;
     }
 
+    @Transactional
     public Task updateTaskStatus(Long id, String status) {
         Optional<Task> optionalTask = taskRepository.findById(id);
         if (optionalTask.isPresent()) {
             Task task = optionalTask.get();
+            String previousStatus = task.getStatus();
             task.setStatus(status);
-            return taskRepository.save(task);
+            Task saved = taskRepository.saveAndFlush(task);
+            afterCommit(() -> {
+                moveCount(previousStatus, saved.getStatus());
+                if (!Objects.equals(previousStatus, saved.getStatus())) {
+                    Map<String, Object> change = new LinkedHashMap<>();
+                    change.put("id", saved.getId());
+                    change.put("from", previousStatus);
+                    change.put("to", saved.getStatus());
+                    change.put("updatedAt", saved.getUpdatedAt());
+                    taskEventBroadcaster.publish("task.status", change);
+                }
+            });
+            return saved;
         }
         return null;
     }
 
+    @Transactional
     public boolean deleteTask(Long id) {
-        if (taskRepository.existsById(id)) {
-            taskRepository.deleteById(id);
+        Optional<Task> existing = taskRepository.findById(id);
+        if (existing.isPresent()) {
+            taskTagService.removeAllTags(id);
+            taskRepository.delete(existing.get());
+            afterCommit(() -> {
+                adjustCount(existing.get().getStatus(), -1);
+                taskEventBroadcaster.publish("task.deleted", Map.of("id", id));
+            });
             return true;
         }
         return false;
     }
 
+    /**
+     * Applies the same change to many tasks in one transaction, with one UPDATE per changed field.
+     * Null status/priority leave that field alone; assignedTo is only touched when updateAssignee is set.
+     * Returns the number of tasks matched.
+     */
+    @Transactional
+    public int bulkUpdate(Collection<Long> ids, String status, String priority,
+                          boolean updateAssignee, String assignedTo) {
+        LocalDateTime now = LocalDateTime.now();
+        int matched = 0;
+
+        Map<String, Long> previousStatuses = new HashMap<>();
+        if (status != null) {
+            for (TaskStatusCount row : taskRepository.countGroupedByStatusForIds(ids)) {
+                previousStatuses.put(row.getStatus(), row.getCount());
+            }
+            matched = Math.max(matched, taskRepository.updateStatusByIdIn(ids, status, now));
+        }
+        if (priority != null) {
+            matched = Math.max(matched, taskRepository.updatePriorityByIdIn(ids, priority, TaskPriority.rankOf(priority), now));
+        }
+        if (updateAssignee) {
+            matched = Math.max(matched, taskRepository.updateAssignedToByIdIn(ids, assignedTo, now));
+        }
+
+        afterCommit(() -> {
+            previousStatuses.forEach((from, count) -> {
+                if (!Objects.equals(from, status)) {
+                    adjustCount(from, -count);
+                    adjustCount(status, count);
+                }
+            });
+            // JPQL updates skip the entity listeners, so refresh the search documents here
+            if (updateAssignee) {
+                taskRepository.findAllById(ids).forEach(searchIndexService::index);
+            }
+
+            Map<String, Object> changes = new LinkedHashMap<>();
+            if (status != null) changes.put("status", status);
+            if (priority != null) changes.put("priority", priority);
+            if (updateAssignee) changes.put("assignedTo", assignedTo);
+            Map<String, Object> event = new LinkedHashMap<>();
+            event.put("ids", ids);
+            event.put("changes", changes);
+            event.put("updatedAt", now);
+            taskEventBroadcaster.publish("task.bulk", event);
+        });
+        return matched;
+    }
+
     public long countTasksByStatus(String status) {
-        return taskRepository.findByStatus(status).size();
+        AtomicLong count = statusCounts.get(status);
+        return count != null ? count.get() : 0;
+    }
+
+    /**
+     * Board header stats: one entry per status plus TOTAL, served from the live counters.
+     */
+    public Map<String, Long> getStatusCounts() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        for (String status : BOARD_STATUSES) {
+            stats.put(status, 0L);
+        }
+        long total = 0;
+        for (Map.Entry<String, AtomicLong> entry : statusCounts.entrySet()) {
+            long count = entry.getValue().get();
+            stats.put(entry.getKey(), count);
+            total += count;
+        }
+        stats.put("TOTAL", total);
+        return stats;
+    }
+
+    /**
+     * Reloads the counters with a single GROUP BY. Runs at startup and periodically,
+     * which also corrects for rows changed outside this service (e.g. an archive import).
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${app.tasks.stats.resync-ms:300000}",
+               fixedDelayString = "${app.tasks.stats.resync-ms:300000}")
+    public void refreshStatusCounts() {
+        Map<String, Long> fresh = new ConcurrentHashMap<>();
+        for (TaskStatusCount row : taskRepository.countGroupedByStatus()) {
+            if (row.getStatus() != null) fresh.put(row.getStatus(), row.getCount());
+        }
+        synchronized (statusCounts) {
+            statusCounts.keySet().retainAll(fresh.keySet());
+            fresh.forEach((status, count) ->
+                    statusCounts.computeIfAbsent(status, s -> new AtomicLong()).set(count));
+        }
+    }
+
+    // Fields the board renders; diffs over these make up task.updated events
+    private Map<String, Object> boardFields(Task task) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("title", task.getTitle());
+        fields.put("description", task.getDescription());
+        fields.put("status", task.getStatus());
+        fields.put("priority", task.getPriority());
+        fields.put("assignedTo", task.getAssignedTo());
+        fields.put("projectId", task.getProjectId());
+        fields.put("projectName", task.getProjectName());
+        fields.put("dueDate", task.getDueDate());
+        fields.put("tags", task.getTags());
+        return fields;
+    }
+
+    private void publishChanges(Task saved, Map<String, Object> before) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        boardFields(saved).forEach((field, value) -> {
+            if (!Objects.equals(before.get(field), value)) changes.put(field, value);
+        });
+        if (changes.isEmpty()) return;
+        changes.put("updatedAt", saved.getUpdatedAt());
+        Map<String, Object> event = new LinkedHashMap<>();
+        event.put("id", saved.getId());
+        event.put("changes", changes);
+        taskEventBroadcaster.publish("task.updated", event);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void moveCount(String from, String to) {
+        if (!Objects.equals(from, to)) {
+            adjustCount(from, -1);
+            adjustCount(to, 1);
+        }
+    }
+
+    private void adjustCount(String status, long delta) {
+        if (status == null) return;
+        statusCounts.computeIfAbsent(status, s -> new AtomicLong()).addAndGet(delta);
     }
 }
 
@@ -0,0 +1,82 @@
+package com.app.service;
+
+import com.app.dto.TagCount;
+import com.app.entity.TaskTag;
+import com.app.repository.TaskTagRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Keeps task_tags in step with the comma-separated Task.tags string the admin UI edits.
+ */
+@Service
+@Transactional
+public class TaskTagService {
+
+    private static final int MAX_TAG_LENGTH = 100;
+
+    @Autowired
+    private TaskTagRepository taskTagRepository;
+
+    /**
+     * Splits "Frontend, urgent ,frontend" into [frontend, urgent].
+     */
+    public Set<String> parseTags(String tags) {
+        Set<String> parsed = new LinkedHashSet<>();
+        if (tags == null) return parsed;
+        for (String tag : tags.split(",")) {
+            String normalized = normalize(tag);
+            if (normalized != null) parsed.add(normalized);
+        }
+        return parsed;
+    }
+
+    public String normalize(String tag) {
+        if (tag == null) return null;
+        String normalized = tag.trim().toLowerCase(Locale.ROOT);
+        if (normalized.isEmpty()) return null;
+        return normalized.length() > MAX_TAG_LENGTH ? normalized.substring(0, MAX_TAG_LENGTH) : normalized;
+    }
+
+    /**
+     * Diffs the task's current rows against its tags string; unchanged tags are left alone.
+     */
+    public void syncTags(Long taskId, String tags) {
+        Set<String> wanted = parseTags(tags);
+        Set<String> existing = new HashSet<>(taskTagRepository.findTagsByTaskId(taskId));
+
+        List<String> removed = new ArrayList<>();
+        for (String tag : existing) {
+            if (!wanted.contains(tag)) removed.add(tag);
+        }
+        if (!removed.isEmpty()) {
+            taskTagRepository.deleteByTaskIdAndTagIn(taskId, removed);
+        }
+
+        List<TaskTag> added = new ArrayList<>();
+        for (String tag : wanted) {
+            if (!existing.contains(tag)) added.add(new TaskTag(null, taskId, tag));
+        }
+        if (!added.isEmpty()) {
+            taskTagRepository.saveAll(added);
+        }
+    }
+
+    public void removeAllTags(Long taskId) {
+        taskTagRepository.deleteByTaskId(taskId);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TagCount> getTagCloud(int limit) {
+        return taskTagRepository.countByTag(PageRequest.of(0, limit));
+    }
+}
@@ -0,0 +1,179 @@
+package com.app.service;
+
+import com.app.dto.StoredUpload;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Content-addressed storage for project uploads.
+ * Files are named by the SHA-256 of their bytes, so identical uploads are stored once
+ * and shared by every project_files row that references the path.
+ */
+@Service
+public class UploadStorageService {
+
+    private static final String WEB_PREFIX = "/uploads/projects/";
+
+    @Value("${app.upload.dir:uploads/projects}")
+    private String uploadDir;
+
+    @Autowired
+    @Qualifier("uploadExecutor")
+    private ThreadPoolTaskExecutor uploadExecutor;
+
+    @Autowired
+    private ProjectFileService projectFileService;
+
+    @Autowired
+    private FileStatCache fileStatCache;
+
+    @Autowired
+    private PendingUploads pendingUploads;
+
+    /**
+     * Stores all non-empty files of one request concurrently. Results keep the request order.
+     */
+    public List<StoredUpload> storeAll(MultipartFile[] files) throws IOException {
+        Path uploadPath = Paths.get(uploadDir);
+        Files.createDirectories(uploadPath);
+
+        List<CompletableFuture<StoredUpload>> futures = new ArrayList<>();
+        for (MultipartFile file : files) {
+            if (!file.isEmpty()) {
+                futures.add(CompletableFuture.supplyAsync(() -> {
+                    try {
+                        return store(uploadPath, file);
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }, uploadExecutor));
+            }
+        }
+
+        List<StoredUpload> stored = new ArrayList<>();
+        try {
+            for (CompletableFuture<StoredUpload> future : futures) {
+                stored.add(future.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof UncheckedIOException) {
+                throw ((UncheckedIOException) e.getCause()).getCause();
+            }
+            throw e;
+        }
+        return stored;
+    }
+
+    /**
+     * Streams one file to a temp file while hashing it, then moves it to its content address.
+     */
+    private StoredUpload store(Path uploadPath, MultipartFile file) throws IOException {
+        String originalName = file.getOriginalFilename();
+        Path temp = Files.createTempFile(uploadPath, ".upload-", ".tmp");
+        try {
+            MessageDigest digest = newSha256();
+            long size;
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                size = Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            String checksum = toHex(digest.digest());
+            String fileName = checksum + extensionOf(originalName);
+            Path target = uploadPath.resolve(fileName);
+
+            StoredUpload stored = new StoredUpload(WEB_PREFIX + fileName, originalName, size,
+                    file.getContentType(), checksum, false);
+            // The project is usually saved later with just the path. Until then the upload is
+            // pending: it keeps its real name and the orphan collector leaves the file alone.
+            pendingUploads.add(stored);
+
+            if (touch(target)) {
+                stored.setDeduplicated(true);
+                Files.delete(temp);
+            } else {
+                // Same-directory rename; a concurrent identical upload just replaces equal bytes
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            }
+
+            fileStatCache.invalidate(WEB_PREFIX + fileName);
+            return stored;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Called after a project drops a file. Nothing is deleted here: the same content-addressed
+     * bytes may just have been handed to an upload whose project is not saved yet. Unreferenced
+     * files are left to OrphanFileCollector, which quarantines them after its grace period.
+     * Returns true if neither a project nor a pending upload references the path any more.
+     */
+    public boolean release(String webPath) {
+        if (projectFileService.countReferences(webPath) > 0 || pendingUploads.contains(webPath)) {
+            System.out.println("ℹ️ File still referenced, keeping: " + webPath);
+            return false;
+        }
+        System.out.println("ℹ️ File no longer referenced, left for upload GC: " + webPath);
+        return true;
+    }
+
+    /**
+     * Marks existing bytes as freshly uploaded, so an old unreferenced copy is not past the
+     * collector's grace period. Returns false if there is no such file.
+     */
+    private boolean touch(Path target) throws IOException {
+        try {
+            Files.setLastModifiedTime(target, FileTime.from(Instant.now()));
+            return true;
+        } catch (NoSuchFileException e) {
+            return false;
+        }
+    }
+
+    private String extensionOf(String originalName) {
+        if (originalName == null) {
+            return "";
+        }
+        String clean = originalName.replaceAll("[^a-zA-Z0-9._-]", "_");
+        int lastDotIndex = clean.lastIndexOf('.');
+        return lastDotIndex >= 0 ? clean.substring(lastDotIndex).toLowerCase() : "";
+    }
+
+    private MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private String toHex(byte[] bytes) {
+        StringBuilder hex = new StringBuilder(bytes.length * 2);
+        for (byte b : bytes) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
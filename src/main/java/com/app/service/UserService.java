@@ -1,5 +1,6 @@
 package com.app.service;
 
+import com.app.dto.CollectionVersion;
 import com.app.entity.User;
 import com.app.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -27,6 +28,14 @@ public class UserService {
         return userRepository.findById(id);
     }
 
+    public Optional<Long> getVersion(Long id) {
+        return userRepository.findVersionById(id);
+    }
+
+    public CollectionVersion getCollectionVersion() {
+        return userRepository.findCollectionVersion();
+    }
+
     public Optional<User> getUserByUsername(String username) {
         return userRepository.findByUsername(username);
     }
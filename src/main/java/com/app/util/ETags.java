@@ -0,0 +1,114 @@
+package com.app.util;
+
+import com.app.dto.CollectionVersion;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Strong ETags for admin API resources and the If-None-Match / If-Match checks that use them.
+ * A single resource is tagged by its @Version, a collection by its row count and latest updatedAt.
+ */
+public final class ETags {
+
+    // Admin data must always be revalidated, and never stored by shared caches
+    public static final String REVALIDATE_CACHE = "private, no-cache";
+
+    private ETags() {
+    }
+
+    /**
+     * Tag of one resource, e.g. "task-12-v3". Extra versions cover related rows that are part of
+     * the representation, such as the project shown with a billing.
+     */
+    public static String forResource(String kind, Long id, Long version, Long... related) {
+        StringBuilder tag = new StringBuilder("\"").append(kind).append('-').append(id).append("-v").append(version);
+        for (Long other : related) {
+            tag.append('.').append(other != null ? other : 0);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * Tag of a whole list, e.g. "tasks-42-1a2b3c". Inserts and updates move the latest updatedAt,
+     * deletes change the count. Extra parts cover related tables shown in the list.
+     */
+    public static String forCollection(String kind, CollectionVersion collection, CollectionVersion... related) {
+        StringBuilder tag = new StringBuilder("\"").append(kind);
+        appendCollection(tag, collection);
+        for (CollectionVersion other : related) {
+            appendCollection(tag, other);
+        }
+        return tag.append('"').toString();
+    }
+
+    /**
+     * True if an If-None-Match header lists the tag (weak comparison, as RFC 9110 requires for GET).
+     */
+    public static boolean noneMatchHits(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) tag = tag.substring(2);
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * True if an If-Match precondition holds: no header, "*", or a strong match with the current tag.
+     */
+    public static boolean ifMatchHolds(String ifMatch, String etag) {
+        if (ifMatch == null || ifMatch.isBlank()) return true;
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * 200 with the tag and revalidation headers.
+     */
+    public static <T> ResponseEntity<T> ok(String etag, T body) {
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, REVALIDATE_CACHE)
+                .body(body);
+    }
+
+    /**
+     * 304 for a client that already holds the current representation; no body is serialized.
+     */
+    public static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .header(HttpHeaders.CACHE_CONTROL, REVALIDATE_CACHE)
+                .build();
+    }
+
+    /**
+     * 412 for a write based on a stale copy. Carries the current tag so the client can re-fetch.
+     */
+    public static <T> ResponseEntity<T> preconditionFailed(String etag) {
+        ResponseEntity.BodyBuilder builder = ResponseEntity.status(HttpStatus.PRECONDITION_FAILED);
+        if (etag != null) builder.eTag(etag);
+        return builder.build();
+    }
+
+    private static void appendCollection(StringBuilder tag, CollectionVersion collection) {
+        long count = collection.getCount() != null ? collection.getCount() : 0;
+        tag.append('-').append(count).append('-').append(Long.toHexString(micros(collection.getLastModified())));
+    }
+
+    private static long micros(LocalDateTime time) {
+        if (time == null) return 0;
+        // PostgreSQL keeps microseconds
+        LocalDateTime truncated = time.truncatedTo(ChronoUnit.MICROS);
+        return truncated.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + truncated.getNano() / 1_000;
+    }
+}
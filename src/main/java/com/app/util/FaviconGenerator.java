@@ -36,7 +36,7 @@ public class FaviconGenerator {
         System.out.println("Favicon images generated in: " + outDir.toAbsolutePath());
     }
 
-    private static BufferedImage toARGB(BufferedImage src) {
+    public static BufferedImage toARGB(BufferedImage src) {
         if (src.getType() == BufferedImage.TYPE_INT_ARGB) return src;
         BufferedImage argb = new BufferedImage(src.getWidth(), src.getHeight(), BufferedImage.TYPE_INT_ARGB);
         Graphics2D g2 = argb.createGraphics();
@@ -46,7 +46,7 @@ public class FaviconGenerator {
         return argb;
     }
 
-    private static BufferedImage resizeHighQuality(BufferedImage src, int w, int h) {
+    public static BufferedImage resizeHighQuality(BufferedImage src, int w, int h) {
         BufferedImage dst = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
         Graphics2D g2 = dst.createGraphics();
         g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BICUBIC);
@@ -1,5 +1,5 @@
-// Projects Management JavaScript - Version 4.1 - ENHANCED VIEW MODE UI
-console.log('🎨 PROJECTS JS v4.1 LOADED - ENHANCED VIEW MODE WITH CARD-BASED LAYOUT');
+// Projects Management JavaScript - Version 4.3 - ENHANCED VIEW MODE UI
+console.log('🎨 PROJECTS JS v4.3 LOADED - ENHANCED VIEW MODE WITH CARD-BASED LAYOUT');
 console.log('📋 Professional card-style boxes for better visual organization');
 console.log('🎯 Improved project header with gradient design and status badges');
 console.log('📊 Enhanced timeline visualization with progress indicators');
@@ -13,6 +13,11 @@ let currentPage = 1;
 const projectsPerPage = 6;
 let currentEditId = null;
 
+// Original upload names by stored path. Stored files are named by their content hash,
+// so the name shown to users comes from the project_files metadata, not from the path.
+const fileNames = {};
+const FILE_MANIFEST_CHUNK = 50;
+
 // ============================================
 // LOAD PROJECTS
 // ============================================
@@ -44,6 +49,8 @@ async function loadProjects() {
             console.log('  ---');
         });
 
+        await loadFileNames(projects.map(p => p.id));
+
         filteredProjects = [...projects];
         updateStats();
         renderProjects();
@@ -54,6 +61,27 @@ async function loadProjects() {
     }
 }
 
+// Fetch original file names for the given projects from the batched file manifest
+async function loadFileNames(projectIds) {
+    for (let i = 0; i < projectIds.length; i += FILE_MANIFEST_CHUNK) {
+        const chunk = projectIds.slice(i, i + FILE_MANIFEST_CHUNK);
+        try {
+            const manifest = await apiCall(`/api/admin/projects/files/manifest?projectIds=${chunk.join(',')}`);
+            Object.values(manifest).forEach(files => rememberFileNames(files));
+        } catch (error) {
+            console.warn('Could not load file names:', error);
+        }
+    }
+}
+
+function rememberFileNames(files) {
+    (files || []).forEach(file => {
+        if (file.path && file.originalName) {
+            fileNames[file.path] = file.originalName;
+        }
+    });
+}
+
 // ============================================
 // UPDATE STATS
 // ============================================
@@ -231,6 +259,23 @@ function isImageFile(filePath) {
     return imageExtensions.some(ext => filePath.toLowerCase().endsWith(ext));
 }
 
+// Smallest generated variant of an uploaded image (from project.images), or the original
+// while derivatives are still being generated. Full-size files are only opened on click.
+function getThumbnailUrl(project, filePath) {
+    const image = project.images && project.images[filePath];
+    if (!image || !image.variants) return filePath;
+    const widths = Object.keys(image.variants).map(Number).sort((a, b) => a - b);
+    if (widths.length === 0) return filePath;
+    const formats = image.variants[widths[0]];
+    return formats.webp || formats.jpg || formats.png || filePath;
+}
+
+// Blurred placeholder shown behind a thumbnail until it has loaded
+function getPlaceholderStyle(project, filePath) {
+    const image = project.images && project.images[filePath];
+    return image && image.placeholder ? `background: url('${image.placeholder}') center / cover;` : '';
+}
+
 function isPdfFile(filePath) {
     if (!filePath) return false;
     return filePath.toLowerCase().endsWith('.pdf');
@@ -240,10 +285,13 @@ function isPdfFile(filePath) {
 function getOriginalFileName(filePath) {
     if (!filePath) return 'Unknown File';
 
+    // Name recorded at upload time, as returned by the API
+    if (fileNames[filePath]) return fileNames[filePath];
+
     // Extract filename from path
     const fileName = filePath.split('/').pop();
 
-    // Check if it's our generated format: originalName_timestamp_uniqueId.ext
+    // Older uploads used the format: originalName_timestamp_uniqueId.ext
     // Pattern: something_20231215_143022_123456789.ext
     const timestampPattern = /_\d{8}_\d{6}_\d+/;
 
@@ -321,7 +369,7 @@ function showProjectFilesModal(project) {
                             <div class="file-gallery">
                                 ${images.map(img => `
                                     <div class="gallery-item">
-                                        <img src="${img}" alt="Project Image" onclick="openImageModal('${img}')">
+                                        <img src="${getThumbnailUrl(project, img)}" alt="Project Image" loading="lazy" style="${getPlaceholderStyle(project, img)}" onclick="openImageModal('${img}')">
                                         <div class="gallery-actions">
                                             <button onclick="downloadFile('${img}')" title="Download">
                                                 <i class="fas fa-download"></i>
@@ -341,7 +389,7 @@ function showProjectFilesModal(project) {
                                     <div class="pdf-item">
                                         <div class="pdf-info">
                                             <i class="fas fa-file-pdf"></i>
-                                            <span>${pdf.split('/').pop()}</span>
+                                            <span>${getOriginalFileName(pdf)}</span>
                                         </div>
                                         <div class="pdf-actions">
                                             <button onclick="openPdf('${pdf}')" title="View PDF">
@@ -561,7 +609,7 @@ function generateProjectFilesSection(project) {
                             ${images.map(img => `
                                 <div style="background: white; border-radius: 6px; padding: 8px; text-align: center; box-shadow: 0 1px 3px rgba(0,0,0,0.1);">
                                     <div style="width: 100%; height: 60px; background: #e5e7eb; border-radius: 4px; margin-bottom: 8px; display: flex; align-items: center; justify-content: center; overflow: hidden;">
-                                        <img src="${img}" alt="Preview" style="max-width: 100%; max-height: 100%; object-fit: cover; border-radius: 4px;" 
+                                        <img src="${getThumbnailUrl(project, img)}" alt="Preview" loading="lazy" style="max-width: 100%; max-height: 100%; object-fit: cover; border-radius: 4px; ${getPlaceholderStyle(project, img)}" 
                                              onerror="this.style.display='none'; this.nextElementSibling.style.display='flex';">
                                         <div style="display: none; color: #6b7280;">
                                             <i class="fas fa-image"></i>
@@ -1175,6 +1223,7 @@ async function uploadProjectFiles() {
                 console.log('- File paths returned:', result.filePaths);
                 console.log('- Number of paths:', result.filePaths ? result.filePaths.length : 0);
 
+                rememberFileNames(result.files);
                 showToast(result.message || `${window.uploadedFiles.length} file(s) uploaded successfully`, 'success');
                 return result.filePaths || [];
             } else {
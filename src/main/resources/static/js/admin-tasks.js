@@ -73,6 +73,78 @@ function createSampleTasks() {
     updateStats();
 }
 
+// ============================================
+// LIVE UPDATES (Server-Sent Events)
+// ============================================
+
+let taskEventSource = null;
+
+function subscribeToTaskEvents() {
+    if (!window.EventSource || taskEventSource) return;
+    // EventSource reconnects on its own and sends Last-Event-ID so missed events are replayed
+    taskEventSource = new EventSource('/api/admin/tasks/events');
+
+    taskEventSource.addEventListener('task.created', e => {
+        const task = JSON.parse(e.data);
+        applyToTaskLists(list => {
+            if (!list.some(t => t.id === task.id)) list.unshift(task);
+        });
+    });
+
+    taskEventSource.addEventListener('task.updated', e => {
+        const { id, changes } = JSON.parse(e.data);
+        applyToTaskLists(list => {
+            const task = list.find(t => t.id === id);
+            if (task) Object.assign(task, changes);
+        });
+    });
+
+    taskEventSource.addEventListener('task.status', e => {
+        const { id, to, updatedAt } = JSON.parse(e.data);
+        applyToTaskLists(list => {
+            const task = list.find(t => t.id === id);
+            if (task) Object.assign(task, { status: to, updatedAt });
+        });
+    });
+
+    taskEventSource.addEventListener('task.bulk', e => {
+        const { ids, changes, updatedAt } = JSON.parse(e.data);
+        const idSet = new Set(ids);
+        applyToTaskLists(list => {
+            list.filter(t => idSet.has(t.id)).forEach(t => Object.assign(t, changes, { updatedAt }));
+        });
+    });
+
+    taskEventSource.addEventListener('task.deleted', e => {
+        const { id } = JSON.parse(e.data);
+        applyToTaskLists(list => {
+            const index = list.findIndex(t => t.id === id);
+            if (index >= 0) list.splice(index, 1);
+        });
+    });
+
+    // Sent when this board fell too far behind; a full reload is cheaper than the backlog
+    taskEventSource.addEventListener('resync', () => reloadTasksQuietly());
+}
+
+function applyToTaskLists(change) {
+    change(tasks);
+    if (isFiltered) change(originalTasksBackup);
+    renderAllTasks();
+    updateStats();
+}
+
+async function reloadTasksQuietly() {
+    try {
+        tasks = await apiCall('/api/admin/tasks', 'GET', null, { silent: true });
+        isFiltered = false;
+        renderAllTasks();
+        updateStats();
+    } catch (error) {
+        console.error('Error reloading tasks:', error);
+    }
+}
+
 // ============================================
 // RENDER TASKS
 // ============================================
@@ -624,8 +696,8 @@ openTaskModal = function(status = null) {
 document.addEventListener('DOMContentLoaded', function() {
     console.log('Tasks page initializing...');
 
-    // Load tasks
-    loadTasks();
+    // Load tasks, then follow changes made by other admins
+    loadTasks().then(subscribeToTaskEvents);
 
     // Setup search
     setupSearch();
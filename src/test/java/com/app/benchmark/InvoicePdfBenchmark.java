@@ -0,0 +1,88 @@
+package com.app.benchmark;
+
+import com.app.entity.Billing;
+import com.app.service.InvoicePdfService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invoice rendering before and after sharing the static layout.
+ * Run with: mvn -P jmh test-compile exec:exec
+ * Add -Djmh.args="-prof gc" to compare allocation per invoice as well.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InvoicePdfBenchmark {
+
+    private final LegacyInvoicePdfRenderer legacy = new LegacyInvoicePdfRenderer();
+    private final InvoicePdfService service = new InvoicePdfService();
+    private Billing billing;
+
+    @Setup
+    public void setUp() {
+        billing = new Billing();
+        billing.setId(1L);
+        billing.setInvoiceNumber("INV-2026-0001");
+        billing.setClientName("Acme Constructions Pvt Ltd");
+        billing.setAmount(new BigDecimal("125000.00"));
+        billing.setStatus("PAID");
+        billing.setNotes("Website redesign and hosting, phase 2");
+        billing.setCreatedAt(LocalDateTime.of(2026, 9, 1, 10, 0));
+        billing.setDueDate(LocalDateTime.of(2026, 9, 30, 0, 0));
+        billing.setPaidDate(LocalDateTime.of(2026, 9, 20, 0, 0));
+    }
+
+    @Benchmark
+    public byte[] legacyPerInvoiceLayout() throws Exception {
+        return legacy.generateInvoicePdf(billing);
+    }
+
+    @Benchmark
+    public byte[] sharedLayout() throws Exception {
+        return service.generateInvoicePdf(billing);
+    }
+
+    @Benchmark
+    public void sharedLayoutStreamed(Blackhole blackhole) throws IOException {
+        service.writeInvoicePdf(billing, new BlackholeOutputStream(blackhole));
+    }
+
+    // Stands in for the servlet output stream: bytes are consumed, never buffered
+    private static final class BlackholeOutputStream extends OutputStream {
+        private final Blackhole blackhole;
+
+        BlackholeOutputStream(Blackhole blackhole) {
+            this.blackhole = blackhole;
+        }
+
+        @Override
+        public void write(int b) {
+            blackhole.consume(b);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            blackhole.consume(b);
+            blackhole.consume(len);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.app.repository;
+
+import com.app.dto.BillingView;
+import com.app.entity.Billing;
+import com.app.entity.Project;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The billing list is built by one fetch-joined DTO query, however many projects the invoices point at.
+ */
+@DataJpaTest(properties = {
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.jpa.show-sql=false"
+})
+class BillingRepositoryTest {
+
+    @Autowired
+    private BillingRepository billingRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        for (int p = 1; p <= 3; p++) {
+            Project project = new Project();
+            project.setName("Project " + p);
+            project.setStatus("ACTIVE");
+            project.setClientName("Client " + p);
+            entityManager.persist(project);
+            for (int b = 1; b <= 4; b++) {
+                entityManager.persist(billing(project, "INV-" + p + "-" + b));
+            }
+        }
+        entityManager.persist(billing(null, "INV-UNLINKED"));
+        entityManager.flush();
+        entityManager.clear();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void findAllViewsUsesOneStatement() {
+        List<BillingView> views = billingRepository.findAllViews();
+
+        assertThat(views).hasSize(13);
+        assertThat(views).filteredOn(view -> view.getProject() != null)
+                .extracting(view -> view.getProject().getName())
+                .containsOnly("Project 1", "Project 2", "Project 3");
+        assertThat(views).filteredOn(view -> view.getProject() == null)
+                .extracting(BillingView::getInvoiceNumber)
+                .containsExactly("INV-UNLINKED");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void findViewByIdUsesOneStatement() {
+        Long id = billingRepository.findAllViews().get(0).getId();
+        statistics.clear();
+
+        Optional<BillingView> view = billingRepository.findViewById(id);
+
+        assertThat(view).isPresent();
+        assertThat(view.get().getProject().getName()).isEqualTo("Project 1");
+        assertThat(view.get().getProject().getClientName()).isEqualTo("Client 1");
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    private Billing billing(Project project, String invoiceNumber) {
+        Billing billing = new Billing();
+        billing.setProject(project);
+        billing.setAmount(new BigDecimal("100.00"));
+        billing.setStatus("PENDING");
+        billing.setInvoiceNumber(invoiceNumber);
+        billing.setClientName("Client");
+        return billing;
+    }
+}